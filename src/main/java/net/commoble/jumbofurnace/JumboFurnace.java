@@ -10,12 +10,19 @@ import net.commoble.jumbofurnace.advancements.UpgradeJumboFurnaceTrigger;
 import net.commoble.jumbofurnace.client.ClientProxy;
 import net.commoble.jumbofurnace.config.ConfigHelper;
 import net.commoble.jumbofurnace.config.ServerConfig;
+import net.commoble.jumbofurnace.jumbo_furnace.FluidFuel;
+import net.commoble.jumbofurnace.jumbo_furnace.FurnaceTier;
 import net.commoble.jumbofurnace.jumbo_furnace.JumboFurnaceBlock;
 import net.commoble.jumbofurnace.jumbo_furnace.JumboFurnaceCoreBlockEntity;
 import net.commoble.jumbofurnace.jumbo_furnace.JumboFurnaceExteriorBlockEntity;
 import net.commoble.jumbofurnace.jumbo_furnace.JumboFurnaceItem;
 import net.commoble.jumbofurnace.jumbo_furnace.JumboFurnaceMenu;
+import net.commoble.jumbofurnace.jumbo_furnace.LoadedCores;
 import net.commoble.jumbofurnace.jumbo_furnace.MultiBlockHelper;
+import net.commoble.jumbofurnace.jumbo_furnace.MultiprocessUpgrade;
+import net.commoble.jumbofurnace.jumbo_furnace.RecipePriority;
+import net.commoble.jumbofurnace.jumbo_furnace.RecipeProgressPayload;
+import net.commoble.jumbofurnace.jumbo_furnace.SpeedUpgrade;
 import net.commoble.jumbofurnace.recipes.JumboFurnaceRecipe;
 import net.commoble.jumbofurnace.recipes.RecipeSorter;
 import net.commoble.jumbofurnace.recipes.SimpleRecipeSerializer;
@@ -36,7 +43,6 @@ import net.minecraft.world.InteractionResult;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.EquipmentSlot;
 import net.minecraft.world.entity.player.Player;
-import net.minecraft.world.flag.FeatureFlags;
 import net.minecraft.world.inventory.MenuType;
 import net.minecraft.world.item.CreativeModeTabs;
 import net.minecraft.world.item.Item;
@@ -50,6 +56,7 @@ import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.material.Fluid;
 import net.neoforged.api.distmarker.Dist;
 import net.neoforged.bus.api.EventPriority;
 import net.neoforged.bus.api.IEventBus;
@@ -60,13 +67,19 @@ import net.neoforged.neoforge.capabilities.Capabilities;
 import net.neoforged.neoforge.capabilities.RegisterCapabilitiesEvent;
 import net.neoforged.neoforge.common.NeoForge;
 import net.neoforged.neoforge.common.Tags;
+import net.neoforged.neoforge.common.extensions.IMenuTypeExtension;
 import net.neoforged.neoforge.common.util.TriState;
 import net.neoforged.neoforge.event.AddReloadListenerEvent;
 import net.neoforged.neoforge.event.BuildCreativeModeTabContentsEvent;
+import net.neoforged.neoforge.event.RegisterCommandsEvent;
 import net.neoforged.neoforge.event.entity.player.PlayerInteractEvent.RightClickBlock;
 import net.neoforged.neoforge.event.level.BlockEvent.EntityMultiPlaceEvent;
 import net.neoforged.neoforge.event.level.BlockEvent.EntityPlaceEvent;
+import net.neoforged.neoforge.event.level.LevelEvent;
 import net.neoforged.neoforge.items.IItemHandler;
+import net.neoforged.neoforge.network.event.RegisterPayloadHandlersEvent;
+import net.neoforged.neoforge.registries.datamaps.DataMapType;
+import net.neoforged.neoforge.registries.datamaps.RegisterDataMapTypesEvent;
 import net.neoforged.neoforge.registries.DeferredHolder;
 import net.neoforged.neoforge.registries.DeferredRegister;
 
@@ -79,12 +92,28 @@ public class JumboFurnace
 	public static final String MODID = "jumbofurnace";
 	public static final TagKey<Block> JUMBOFURNACEABLE_TAG = TagKey.create(Registries.BLOCK, id("jumbofurnaceable"));
 	public static final TagKey<Item> MULTIPROCESSING_UPGRADE_TAG = TagKey.create(Registries.ITEM, id("multiprocessing_upgrade"));
+	public static final TagKey<Item> SPEED_UPGRADE_TAG = TagKey.create(Registries.ITEM, id(Names.SPEED_UPGRADE));
+	public static final DataMapType<Item, MultiprocessUpgrade> MULTIPROCESS_UPGRADE_DATA = DataMapType.builder(id(Names.MULTIPROCESS_UPGRADE), Registries.ITEM, MultiprocessUpgrade.CODEC)
+		.synced(MultiprocessUpgrade.CODEC, false)
+		.build();
+	public static final DataMapType<Item, SpeedUpgrade> SPEED_UPGRADE_DATA = DataMapType.builder(id(Names.SPEED_UPGRADE), Registries.ITEM, SpeedUpgrade.CODEC)
+		.synced(SpeedUpgrade.CODEC, false)
+		.build();
+	public static final DataMapType<Item, RecipePriority> RECIPE_PRIORITY_DATA = DataMapType.builder(id(Names.RECIPE_PRIORITY), Registries.ITEM, RecipePriority.CODEC)
+		.synced(RecipePriority.CODEC, false)
+		.build();
+	public static final DataMapType<Fluid, FluidFuel> FLUID_FUEL_DATA = DataMapType.builder(id(Names.FLUID_FUEL), Registries.FLUID, FluidFuel.CODEC)
+		.synced(FluidFuel.CODEC, false)
+		.build();
 	
 	public final ServerConfig serverConfig;
 	public final DeferredHolder<Block, JumboFurnaceBlock> jumboFurnaceBlock;
 	public final DeferredHolder<Item, JumboFurnaceItem> jumboFurnaceItem;
+	public final DeferredHolder<Block, JumboFurnaceBlock> hugeJumboFurnaceBlock;
+	public final DeferredHolder<Item, JumboFurnaceItem> hugeJumboFurnaceItem;
 	public final DeferredHolder<Item, Item> jumboFurnaceJeiDummy;
 	public final DeferredHolder<BlockEntityType<?>, BlockEntityType<JumboFurnaceCoreBlockEntity>> jumboFurnaceCoreBlockEntityType;
+	/** Exterior blocks no longer have block entities, this is only registered so older worlds can load and remove them **/
 	public final DeferredHolder<BlockEntityType<?>, BlockEntityType<JumboFurnaceExteriorBlockEntity>> jumboFurnaceExteriorBlockEntityType;
 	public final DeferredHolder<MenuType<?>, MenuType<JumboFurnaceMenu>> jumboFurnaceMenuType;
 	public final DeferredHolder<RecipeType<?>, RecipeType<JumboFurnaceRecipe>> jumboSmeltingRecipeType;
@@ -111,9 +140,11 @@ public class JumboFurnace
 		DeferredRegister<RecipeSerializer<?>> recipeSerializers = makeDeferredRegister(modBus, Registries.RECIPE_SERIALIZER);
 		DeferredRegister<CriterionTrigger<?>> triggerTypes = makeDeferredRegister(modBus, Registries.TRIGGER_TYPE);
 		
-		this.jumboFurnaceBlock = blocks.register(Names.JUMBO_FURNACE, () -> new JumboFurnaceBlock(Block.Properties.ofFullCopy(Blocks.FURNACE)));
+		this.jumboFurnaceBlock = blocks.register(Names.JUMBO_FURNACE, () -> new JumboFurnaceBlock(FurnaceTier.JUMBO, Block.Properties.ofFullCopy(Blocks.FURNACE)));
+		this.hugeJumboFurnaceBlock = blocks.register(Names.HUGE_JUMBO_FURNACE, () -> new JumboFurnaceBlock(FurnaceTier.HUGE, Block.Properties.ofFullCopy(Blocks.FURNACE)));
 		
-		this.jumboFurnaceItem = items.register(Names.JUMBO_FURNACE, () -> new JumboFurnaceItem(new Item.Properties()));
+		this.jumboFurnaceItem = items.register(Names.JUMBO_FURNACE, () -> new JumboFurnaceItem(this.jumboFurnaceBlock, new Item.Properties()));
+		this.hugeJumboFurnaceItem = items.register(Names.HUGE_JUMBO_FURNACE, () -> new JumboFurnaceItem(this.hugeJumboFurnaceBlock, new Item.Properties()));
 		
 		this.jumboFurnaceJeiDummy = items.register(Names.JUMBO_FURNACE_JEI, () -> new Item(new Item.Properties())
 		{
@@ -128,11 +159,11 @@ public class JumboFurnace
 		});
 		
 		this.jumboFurnaceCoreBlockEntityType = blockEntities.register(Names.JUMBO_FURNACE_CORE,
-			() -> BlockEntityType.Builder.of(JumboFurnaceCoreBlockEntity::create, this.jumboFurnaceBlock.get()).build(null));
+			() -> BlockEntityType.Builder.of(JumboFurnaceCoreBlockEntity::create, this.jumboFurnaceBlock.get(), this.hugeJumboFurnaceBlock.get()).build(null));
 		this.jumboFurnaceExteriorBlockEntityType = blockEntities.register(Names.JUMBO_FURNACE_EXTERIOR,
 			() -> BlockEntityType.Builder.of(JumboFurnaceExteriorBlockEntity::create, this.jumboFurnaceBlock.get()).build(null));
 		
-		this.jumboFurnaceMenuType = menus.register(Names.JUMBO_FURNACE, () -> new MenuType<>(JumboFurnaceMenu::getClientMenu, FeatureFlags.VANILLA_SET));
+		this.jumboFurnaceMenuType = menus.register(Names.JUMBO_FURNACE, () -> IMenuTypeExtension.create(JumboFurnaceMenu::getClientMenu));
 		
 		this.jumboSmeltingRecipeType = recipeTypes.register(Names.JUMBO_SMELTING, () -> RecipeType.simple(ResourceLocation.fromNamespaceAndPath(MODID, Names.JUMBO_SMELTING)));
 		
@@ -143,8 +174,12 @@ public class JumboFurnace
 		
 		modBus.addListener(this::onBuildCreativeTabs);
 		modBus.addListener(this::onRegisterCapabilities);
+		modBus.addListener(this::onRegisterPayloads);
+		modBus.addListener(this::onRegisterDataMapTypes);
 
 		forgeBus.addListener(this::onAddServerReloadListeners);
+		forgeBus.addListener(this::onRegisterCommands);
+		forgeBus.addListener(this::onLevelUnload);
 		forgeBus.addListener(this::onEntityPlaceBlock);
 		forgeBus.addListener(EventPriority.LOW, this::onRightClickBlockLow);
 		
@@ -163,7 +198,38 @@ public class JumboFurnace
 	
 	private void onRegisterCapabilities(RegisterCapabilitiesEvent event)
 	{
-		event.registerBlockEntity(Capabilities.ItemHandler.BLOCK, this.jumboFurnaceExteriorBlockEntityType.get(), (be, side) -> be.getItemHandler(side));
+		Block[] furnaceBlocks = {this.jumboFurnaceBlock.get(), this.hugeJumboFurnaceBlock.get()};
+		event.registerBlock(Capabilities.ItemHandler.BLOCK, (level, pos, state, be, side) -> JumboFurnaceBlock.getItemHandler(level, pos, state, side), furnaceBlocks);
+		event.registerBlock(Capabilities.FluidHandler.BLOCK, (level, pos, state, be, side) -> JumboFurnaceBlock.getFluidHandler(level, pos, state, side), furnaceBlocks);
+		event.registerBlock(Capabilities.EnergyStorage.BLOCK, (level, pos, state, be, side) -> JumboFurnaceBlock.getEnergyStorage(level, pos, state, side), furnaceBlocks);
+	}
+	
+	private void onRegisterPayloads(RegisterPayloadHandlersEvent event)
+	{
+		event.registrar("1")
+			.playToClient(RecipeProgressPayload.TYPE, RecipeProgressPayload.STREAM_CODEC, RecipeProgressPayload::handle);
+	}
+	
+	private void onRegisterDataMapTypes(RegisterDataMapTypesEvent event)
+	{
+		event.register(MULTIPROCESS_UPGRADE_DATA);
+		event.register(SPEED_UPGRADE_DATA);
+		event.register(FLUID_FUEL_DATA);
+		event.register(RECIPE_PRIORITY_DATA);
+	}
+	
+	private void onRegisterCommands(RegisterCommandsEvent event)
+	{
+		JumboFurnaceCommands.register(event.getDispatcher());
+	}
+	
+	private void onLevelUnload(LevelEvent.Unload event)
+	{
+		// levels can be dropped without their block entities being removed, so forget that level's cores ourselves
+		if (event.getLevel() instanceof Level level)
+		{
+			LoadedCores.clear(level);
+		}
 	}
 	
 	private void onAddServerReloadListeners(AddReloadListenerEvent event)
@@ -189,7 +255,6 @@ public class JumboFurnace
 				for (Pair<BlockPos, BlockState> pair : pairs)
 				{
 					BlockPos newPos = pair.getFirst();
-					BlockState newState = pair.getSecond();
 					// attempt to remove items from existing itemhandlers if possible
 
 					for (Direction dir : Direction.values())
@@ -205,8 +270,8 @@ public class JumboFurnace
 					{
 						addItemsToList(stacks, handler);
 					}
-					levelAccess.setBlock(newPos, newState, 3);
 				}
+				MultiBlockHelper.setStructureStates(level, pairs, false);
 				if (entity instanceof ServerPlayer)
 				{
 					this.assembleJumboFurnaceTrigger.get().trigger((ServerPlayer)entity);
@@ -251,7 +316,7 @@ public class JumboFurnace
 				Level level = event.getLevel();
 				BlockPos pos = event.getPos();
 				BlockState state = level.getBlockState(pos);
-				if (state.getBlock() == this.jumboFurnaceBlock.get())
+				if (state.getBlock() instanceof JumboFurnaceBlock block)
 				{
 					// we used shears on a jumbo furnace while sneaking -- event will now be cancelled/overridden
 					
@@ -261,13 +326,12 @@ public class JumboFurnace
 						BlockPos corePos = JumboFurnaceBlock.getCorePos(state, pos);
 						// forge fires a RightClickBlock event before this is called, we can assume that this would fail if the player didn't have
 						// permission to use items on the block
-			            Block.popResource(level, pos, new ItemStack(this.jumboFurnaceItem.get()));
+			            Block.popResource(level, pos, new ItemStack(this.getFurnaceItem(block)));
 			            InteractionHand hand = event.getHand();
 			            stack.hurtAndBreak(1, player, hand == InteractionHand.MAIN_HAND ? EquipmentSlot.MAINHAND : EquipmentSlot.OFFHAND);
 						
-						MultiBlockHelper.get3x3CubeAround(corePos)
-							.forEach(componentPos ->
-								level.removeBlock(componentPos, true));	// use isMoving flag to prevent recursive destruction from occurring or dropping blocks
+						// removes blocks with the isMoving flag to prevent recursive destruction from occurring or dropping blocks
+						MultiBlockHelper.removeJumboFurnace(level, block, corePos, null, false);
 					}
 					level.playSound(player, player.getX(), player.getY(), player.getZ(), SoundEvents.SHEEP_SHEAR, SoundSource.NEUTRAL, 1.0F, 1.0F);
 									
@@ -283,20 +347,36 @@ public class JumboFurnace
 		if (event.getTabKey() == CreativeModeTabs.FUNCTIONAL_BLOCKS)
 		{
 			event.accept(this.jumboFurnaceItem.get());
+			event.accept(this.hugeJumboFurnaceItem.get());
 		}
 	}
 	
+	/**
+	 * @param block A furnace block
+	 * @return The item that places the furnace that block is part of
+	 */
+	public Item getFurnaceItem(JumboFurnaceBlock block)
+	{
+		return block.getTier() == FurnaceTier.HUGE
+			? this.hugeJumboFurnaceItem.get()
+			: this.jumboFurnaceItem.get();
+	}
+	
 	private static void addItemsToList(List<ItemStack> stacks, IItemHandler handler)
 	{
-		int slots = handler.getSlots();
-		for (int slot=0; slot<slots; slot++)
+		JumboFurnaceCoreBlockEntity.bulkTransfer(handler, () ->
 		{
-			ItemStack stack = handler.extractItem(slot, 64, false);
-			if (!stack.isEmpty())
+			int slots = handler.getSlots();
+			for (int slot=0; slot<slots; slot++)
 			{
-				stacks.add(stack);
+				ItemStack stack = handler.extractItem(slot, 64, false);
+				if (!stack.isEmpty())
+				{
+					stacks.add(stack);
+				}
 			}
-		}
+			return stacks;
+		});
 	}
 	
 	public static ResourceLocation id(String path)
@@ -0,0 +1,97 @@
+package net.commoble.jumbofurnace;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.exceptions.SimpleCommandExceptionType;
+
+import net.commoble.jumbofurnace.jumbo_furnace.JumboFurnaceBlock;
+import net.commoble.jumbofurnace.jumbo_furnace.JumboFurnaceCoreBlockEntity;
+import net.commoble.jumbofurnace.recipes.JumboFurnaceRecipe;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.commands.arguments.coordinates.BlockPosArgument;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
+
+/**
+ * /jumbofurnace lock <pos> : locks the jumbo furnace at a position to the recipe it's cooking or last cooked
+ * /jumbofurnace unlock <pos> : lets the jumbo furnace at a position start any recipe again
+ * /jumbofurnace link <pos> : links the jumbo furnace at a position into a cluster with the linked furnaces next to it
+ * /jumbofurnace unlink <pos> : removes the jumbo furnace at a position from its cluster
+ */
+public final class JumboFurnaceCommands
+{
+	private JumboFurnaceCommands() {}
+	
+	public static final String POS = "pos";
+	public static final SimpleCommandExceptionType NO_FURNACE = new SimpleCommandExceptionType(Component.translatable("commands.jumbofurnace.failure.no_furnace"));
+	public static final SimpleCommandExceptionType NO_RECIPE = new SimpleCommandExceptionType(Component.translatable("commands.jumbofurnace.lock.failure.no_recipe"));
+	
+	public static void register(CommandDispatcher<CommandSourceStack> dispatcher)
+	{
+		dispatcher.register(Commands.literal(JumboFurnace.MODID)
+			.requires(source -> source.hasPermission(Commands.LEVEL_GAMEMASTERS))
+			.then(Commands.literal("lock")
+				.then(Commands.argument(POS, BlockPosArgument.blockPos())
+					.executes(JumboFurnaceCommands::lock)))
+			.then(Commands.literal("unlock")
+				.then(Commands.argument(POS, BlockPosArgument.blockPos())
+					.executes(JumboFurnaceCommands::unlock)))
+			.then(Commands.literal("link")
+				.then(Commands.argument(POS, BlockPosArgument.blockPos())
+					.executes(context -> setClusterLinked(context, true))))
+			.then(Commands.literal("unlink")
+				.then(Commands.argument(POS, BlockPosArgument.blockPos())
+					.executes(context -> setClusterLinked(context, false)))));
+	}
+	
+	private static int lock(CommandContext<CommandSourceStack> context) throws CommandSyntaxException
+	{
+		JumboFurnaceCoreBlockEntity core = getCore(context);
+		JumboFurnaceRecipe recipe = core.getLockableRecipe();
+		if (recipe == null)
+		{
+			throw NO_RECIPE.create();
+		}
+		core.setLockedRecipe(recipe);
+		context.getSource().sendSuccess(() -> Component.translatable("commands.jumbofurnace.lock.success", recipe.results().get(0).getHoverName()), true);
+		return 1;
+	}
+	
+	private static int unlock(CommandContext<CommandSourceStack> context) throws CommandSyntaxException
+	{
+		getCore(context).setLockedRecipe(null);
+		context.getSource().sendSuccess(() -> Component.translatable("commands.jumbofurnace.unlock.success"), true);
+		return 1;
+	}
+	
+	private static int setClusterLinked(CommandContext<CommandSourceStack> context, boolean linked) throws CommandSyntaxException
+	{
+		JumboFurnaceCoreBlockEntity core = getCore(context);
+		core.setClusterLinked(linked);
+		if (linked)
+		{
+			int members = core.clusterInput.getMembers().size();
+			context.getSource().sendSuccess(() -> Component.translatable("commands.jumbofurnace.link.success", members), true);
+		}
+		else
+		{
+			context.getSource().sendSuccess(() -> Component.translatable("commands.jumbofurnace.unlink.success"), true);
+		}
+		return 1;
+	}
+	
+	private static JumboFurnaceCoreBlockEntity getCore(CommandContext<CommandSourceStack> context) throws CommandSyntaxException
+	{
+		ServerLevel level = context.getSource().getLevel();
+		BlockPos pos = BlockPosArgument.getLoadedBlockPos(context, POS);
+		JumboFurnaceCoreBlockEntity core = JumboFurnaceBlock.getCore(level, level.getBlockState(pos), pos);
+		if (core == null)
+		{
+			throw NO_FURNACE.create();
+		}
+		return core;
+	}
+}
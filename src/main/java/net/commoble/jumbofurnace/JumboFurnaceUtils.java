@@ -1,10 +1,15 @@
 package net.commoble.jumbofurnace;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.crafting.RecipeType;
+import net.commoble.jumbofurnace.jumbo_furnace.BufferedItemStackHandler;
+import net.commoble.jumbofurnace.jumbo_furnace.IndexedItemStackHandler;
 import net.neoforged.neoforge.items.IItemHandler;
 import net.neoforged.neoforge.items.IItemHandlerModifiable;
-import net.neoforged.neoforge.items.ItemStackHandler;
+import net.neoforged.neoforge.items.ItemHandlerHelper;
 
 public class JumboFurnaceUtils
 {
@@ -21,10 +26,19 @@ public class JumboFurnaceUtils
 			: stack.getBurnTime(RecipeType.SMELTING);
 	}
 	
+	/**
+	 * Copies an itemhandler's contents into a detached simulator.
+	 * The copy isn't a {@link net.commoble.jumbofurnace.jumbo_furnace.CoreItemHandler}, so bulk transfers don't apply to it,
+	 * and changing it never notifies anything.
+	 * @param itemHandler Itemhandler to copy
+	 * @return A copy of the itemhandler's slots, with the same capacity if it was buffered
+	 */
 	public static IItemHandler copyItemHandler(IItemHandler itemHandler)
 	{
 		int slots = itemHandler.getSlots();
-		ItemStackHandler copy = new ItemStackHandler(slots);
+		IndexedItemStackHandler copy = itemHandler instanceof BufferedItemStackHandler buffered
+			? new BufferedItemStackHandler(slots, buffered::getCapacity)
+			: new IndexedItemStackHandler(slots);
 		for (int i=0; i<slots; i++)
 		{
 			copy.setStackInSlot(i, itemHandler.getStackInSlot(i).copy());
@@ -32,6 +46,21 @@ public class JumboFurnaceUtils
 		return copy;
 	}
 	
+	/**
+	 * Inserts an itemstack into an itemhandler, filling partial stacks of the same item first and then empty slots.
+	 * Uses the itemhandler's slot index if it has one.
+	 * @param handler Itemhandler to insert into
+	 * @param stack Itemstack to insert
+	 * @param simulate If true, the itemhandler won't be changed
+	 * @return The remainder of the stack that couldn't be inserted
+	 */
+	public static ItemStack insertItemStacked(IItemHandler handler, ItemStack stack, boolean simulate)
+	{
+		return handler instanceof IndexedItemStackHandler indexed
+			? indexed.insertStacked(stack, simulate)
+			: ItemHandlerHelper.insertItemStacked(handler, stack, simulate);
+	}
+	
 	public static void copyItemHandlerTo(IItemHandler from, IItemHandlerModifiable to)
 	{
 		int slots = to.getSlots();
@@ -45,4 +74,50 @@ public class JumboFurnaceUtils
 			to.setStackInSlot(i, from.getStackInSlot(i));
 		}
 	}
+	
+	/**
+	 * Adds an itemstack to a list of itemstacks, merging it into existing stacks of the same item and components where possible.
+	 * @param stacks List of stacks to add to. The stacks in the list may be modified.
+	 * @param stack Itemstack to add. Will not be modified; a copy is added to the list if it can't be fully merged.
+	 */
+	public static void addMergedStack(List<ItemStack> stacks, ItemStack stack)
+	{
+		int remaining = stack.getCount();
+		if (remaining <= 0)
+		{
+			return;
+		}
+		for (ItemStack existing : stacks)
+		{
+			if (ItemStack.isSameItemSameComponents(existing, stack))
+			{
+				int space = existing.getMaxStackSize() - existing.getCount();
+				if (space > 0)
+				{
+					int merged = Math.min(space, remaining);
+					existing.grow(merged);
+					remaining -= merged;
+					if (remaining <= 0)
+					{
+						return;
+					}
+				}
+			}
+		}
+		stacks.add(stack.copyWithCount(remaining));
+	}
+	
+	/**
+	 * @param stacks List of itemstacks, which will not be modified
+	 * @return A new list containing copies of the given stacks, merged into as few stacks as possible
+	 */
+	public static List<ItemStack> compactStacks(List<ItemStack> stacks)
+	{
+		List<ItemStack> compacted = new ArrayList<>();
+		for (ItemStack stack : stacks)
+		{
+			addMergedStack(compacted, stack);
+		}
+		return compacted;
+	}
 }
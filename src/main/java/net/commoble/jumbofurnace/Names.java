@@ -3,6 +3,7 @@ package net.commoble.jumbofurnace;
 public class Names
 {
 	public static final String JUMBO_FURNACE = "jumbo_furnace";
+	public static final String HUGE_JUMBO_FURNACE = "huge_jumbo_furnace";
 	
 	public static final String JUMBO_FURNACE_EXTERIOR = "jumbo_furnace_exterior";
 	public static final String JUMBO_FURNACE_CORE = "jumbo_furnace_core";
@@ -19,4 +20,11 @@ public class Names
 	
 	public static final String ASSEMBLE_JUMBO_FURNACE = "assemble_jumbo_furnace";
 	public static final String UPGRADE_JUMBO_FURNACE = "upgrade_jumbo_furnace";
+	
+	public static final String RECIPE_PROGRESS = "recipe_progress";
+	
+	public static final String MULTIPROCESS_UPGRADE = "multiprocess_upgrade";
+	public static final String SPEED_UPGRADE = "speed_upgrade";
+	public static final String FLUID_FUEL = "fluid_fuel";
+	public static final String RECIPE_PRIORITY = "recipe_priority";
 }
@@ -1,14 +1,23 @@
 package net.commoble.jumbofurnace.client;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 import net.commoble.jumbofurnace.JumboFurnace;
+import net.commoble.jumbofurnace.jumbo_furnace.FluidFuelTank;
 import net.commoble.jumbofurnace.jumbo_furnace.JumboFurnaceMenu;
-import net.minecraft.Util;
+import net.commoble.jumbofurnace.jumbo_furnace.RecipeProgressPayload;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.client.gui.components.Button;
+import net.minecraft.client.gui.components.Tooltip;
 import net.minecraft.client.gui.screens.inventory.AbstractContainerScreen;
+import net.minecraft.core.Direction;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.entity.player.Inventory;
+import net.neoforged.neoforge.fluids.FluidStack;
 
 public class JumboFurnaceScreen extends AbstractContainerScreen<JumboFurnaceMenu>
 {
@@ -28,6 +37,48 @@ public class JumboFurnaceScreen extends AbstractContainerScreen<JumboFurnaceMenu
 	public static final int COOK_METER_HEIGHT = 16;
 	public static final int COOK_METER_TO_X = 79;
 	public static final int COOK_METER_TO_Y = 72;
+	
+	public static final String RECIPE_PROGRESS = "jumbofurnace.recipe_progress";
+	public static final String RECIPE_BATCH_PROGRESS = "jumbofurnace.recipe_batch_progress";
+	public static final String MORE_RECIPES = "jumbofurnace.more_recipes";
+	public static final String FUEL_TANK = "gui.jumbofurnace.fuel_tank";
+	public static final int MAX_RECIPE_TOOLTIP_LINES = 10;
+	
+	public static final String EJECT_OFF = "gui.jumbofurnace.eject.off";
+	public static final String EJECT_PREFIX = "gui.jumbofurnace.eject.";
+	public static final String PULL_OFF = "gui.jumbofurnace.pull.off";
+	public static final String PULL_PREFIX = "gui.jumbofurnace.pull.";
+	public static final String LOCK_OFF = "gui.jumbofurnace.lock.off";
+	public static final String LOCK_ON = "gui.jumbofurnace.lock.on";
+	public static final String LOCK_TOOLTIP = "gui.jumbofurnace.lock.tooltip";
+	public static final String SCHEDULING_PREFIX = "gui.jumbofurnace.scheduling.";
+	public static final String SCHEDULING_TOOLTIP = "gui.jumbofurnace.scheduling.tooltip";
+	public static final int SIDE_BUTTON_X = 116;
+	public static final int PULL_BUTTON_Y = 15;
+	public static final int EJECT_BUTTON_Y = 32;
+	public static final int SIDE_BUTTON_WIDTH = 54;
+	public static final int SIDE_BUTTON_HEIGHT = 16;
+	public static final int LOCK_BUTTON_X = 63;
+	public static final int LOCK_BUTTON_Y = PULL_BUTTON_Y;
+	public static final int LOCK_BUTTON_WIDTH = 52;
+	public static final int SCHEDULING_BUTTON_Y = EJECT_BUTTON_Y;
+	public static final int SLOT_FRAME_SIZE = 18;
+	public static final String PAGE = "gui.jumbofurnace.page";
+	public static final String PREVIOUS_PAGE = "gui.jumbofurnace.page.previous";
+	public static final String NEXT_PAGE = "gui.jumbofurnace.page.next";
+	public static final int PREVIOUS_PAGE_BUTTON_X = 66;
+	public static final int NEXT_PAGE_BUTTON_X = 98;
+	public static final int PAGE_BUTTON_Y = 128;
+	public static final int PAGE_BUTTON_SIZE = 14;
+	public static final int PAGE_LABEL_X = 89;
+	public static final int PAGE_LABEL_Y = PAGE_BUTTON_Y + 3;
+	
+	private Button pullButton;
+	private Button ejectButton;
+	private Button lockButton;
+	private Button schedulingButton;
+	private Button previousPageButton;
+	private Button nextPageButton;
 
 	public JumboFurnaceScreen(JumboFurnaceMenu screenContainer, Inventory inv, Component titleIn)
 	{
@@ -40,12 +91,110 @@ public class JumboFurnaceScreen extends AbstractContainerScreen<JumboFurnaceMenu
 		this.inventoryLabelY = this.imageHeight - 94;
 	}
 
+	@Override
+	protected void init()
+	{
+		super.init();
+		this.pullButton = this.addRenderableWidget(Button.builder(this.getPullMessage(), button -> this.minecraft.gameMode.handleInventoryButtonClick(this.menu.containerId, JumboFurnaceMenu.CYCLE_PULL_BUTTON))
+			.bounds(this.leftPos + SIDE_BUTTON_X, this.topPos + PULL_BUTTON_Y, SIDE_BUTTON_WIDTH, SIDE_BUTTON_HEIGHT)
+			.build());
+		this.ejectButton = this.addRenderableWidget(Button.builder(this.getEjectMessage(), button -> this.minecraft.gameMode.handleInventoryButtonClick(this.menu.containerId, JumboFurnaceMenu.CYCLE_EJECT_BUTTON))
+			.bounds(this.leftPos + SIDE_BUTTON_X, this.topPos + EJECT_BUTTON_Y, SIDE_BUTTON_WIDTH, SIDE_BUTTON_HEIGHT)
+			.build());
+		this.lockButton = this.addRenderableWidget(Button.builder(this.getLockMessage(), button -> this.minecraft.gameMode.handleInventoryButtonClick(this.menu.containerId, JumboFurnaceMenu.TOGGLE_LOCK_BUTTON))
+			.bounds(this.leftPos + LOCK_BUTTON_X, this.topPos + LOCK_BUTTON_Y, LOCK_BUTTON_WIDTH, SIDE_BUTTON_HEIGHT)
+			.tooltip(Tooltip.create(Component.translatable(LOCK_TOOLTIP)))
+			.build());
+		this.schedulingButton = this.addRenderableWidget(Button.builder(this.getSchedulingMessage(), button -> this.minecraft.gameMode.handleInventoryButtonClick(this.menu.containerId, JumboFurnaceMenu.CYCLE_SCHEDULING_BUTTON))
+			.bounds(this.leftPos + LOCK_BUTTON_X, this.topPos + SCHEDULING_BUTTON_Y, LOCK_BUTTON_WIDTH, SIDE_BUTTON_HEIGHT)
+			.tooltip(Tooltip.create(Component.translatable(SCHEDULING_TOOLTIP)))
+			.build());
+		// only furnaces with more slots than fit on the screen at once have pages to switch between
+		boolean paged = this.menu.getPageCount() > 1;
+		this.previousPageButton = this.addRenderableWidget(Button.builder(Component.translatable(PREVIOUS_PAGE), button -> this.minecraft.gameMode.handleInventoryButtonClick(this.menu.containerId, JumboFurnaceMenu.PREVIOUS_PAGE_BUTTON))
+			.bounds(this.leftPos + PREVIOUS_PAGE_BUTTON_X, this.topPos + PAGE_BUTTON_Y, PAGE_BUTTON_SIZE, PAGE_BUTTON_SIZE)
+			.build());
+		this.previousPageButton.visible = paged;
+		this.nextPageButton = this.addRenderableWidget(Button.builder(Component.translatable(NEXT_PAGE), button -> this.minecraft.gameMode.handleInventoryButtonClick(this.menu.containerId, JumboFurnaceMenu.NEXT_PAGE_BUTTON))
+			.bounds(this.leftPos + NEXT_PAGE_BUTTON_X, this.topPos + PAGE_BUTTON_Y, PAGE_BUTTON_SIZE, PAGE_BUTTON_SIZE)
+			.build());
+		this.nextPageButton.visible = paged;
+	}
+
+	@Override
+	protected void containerTick()
+	{
+		super.containerTick();
+		this.pullButton.setMessage(this.getPullMessage());
+		this.ejectButton.setMessage(this.getEjectMessage());
+		this.lockButton.setMessage(this.getLockMessage());
+		this.schedulingButton.setMessage(this.getSchedulingMessage());
+	}
+	
+	private Component getSchedulingMessage()
+	{
+		return Component.translatable(SCHEDULING_PREFIX + this.menu.getSchedulingPolicy().getSerializedName());
+	}
+	
+	private Component getLockMessage()
+	{
+		return Component.translatable(this.menu.isRecipeLocked() ? LOCK_ON : LOCK_OFF);
+	}
+	
+	private Component getPullMessage()
+	{
+		Direction pullDirection = this.menu.getPullDirection();
+		return Component.translatable(pullDirection == null ? PULL_OFF : PULL_PREFIX + pullDirection.getSerializedName());
+	}
+	
+	private Component getEjectMessage()
+	{
+		Direction ejectDirection = this.menu.getEjectDirection();
+		return Component.translatable(ejectDirection == null ? EJECT_OFF : EJECT_PREFIX + ejectDirection.getSerializedName());
+	}
+
 	@Override
 	public void render(GuiGraphics graphics, int x, int y, float partialTicks)
 	{
 		this.renderBackground(graphics, x, y, partialTicks);
 		super.render(graphics, x, y, partialTicks);
 		this.renderTooltip(graphics, x, y);
+		if (this.menu.getCarried().isEmpty() && this.isHovering(COOK_METER_TO_X, COOK_METER_TO_Y, COOK_METER_WIDTH, COOK_METER_HEIGHT, x, y))
+		{
+			this.renderRecipeProgressTooltip(graphics, x, y);
+		}
+		if (this.menu.getCarried().isEmpty() && this.isHovering(BURN_METER_TO_X, BURN_METER_TO_Y, BURN_METER_WIDTH, BURN_METER_HEIGHT, x, y))
+		{
+			FluidStack fuel = this.menu.getFuelTankFluid();
+			if (!fuel.isEmpty())
+			{
+				graphics.renderTooltip(this.font, Component.translatable(FUEL_TANK, fuel.getHoverName(), fuel.getAmount(), FluidFuelTank.CAPACITY), x, y);
+			}
+		}
+	}
+	
+	private void renderRecipeProgressTooltip(GuiGraphics graphics, int x, int y)
+	{
+		Collection<RecipeProgressPayload.Entry> recipes = this.menu.getRecipeProgress();
+		if (recipes.isEmpty())
+		{
+			return;
+		}
+		long gameTime = this.getGameTime();
+		List<Component> lines = new ArrayList<>();
+		for (RecipeProgressPayload.Entry entry : recipes)
+		{
+			if (lines.size() >= MAX_RECIPE_TOOLTIP_LINES)
+			{
+				lines.add(Component.translatable(MORE_RECIPES, recipes.size() - MAX_RECIPE_TOOLTIP_LINES));
+				break;
+			}
+			int percent = (int)(this.menu.getRecipeProgress(entry, gameTime) * 100F);
+			lines.add(entry.count() > 1
+				? Component.translatable(RECIPE_BATCH_PROGRESS, entry.icon().getHoverName(), entry.count(), percent)
+				: Component.translatable(RECIPE_PROGRESS, entry.icon().getHoverName(), percent));
+		}
+		graphics.renderComponentTooltip(this.font, lines, x, y);
 	}
 
 	@Override
@@ -56,6 +205,9 @@ public class JumboFurnaceScreen extends AbstractContainerScreen<JumboFurnaceMenu
 		
 		// draw the background
 		graphics.blit(GUI_TEXTURE, xStart, yStart, 0,0, this.imageWidth, this.imageHeight);
+		// the texture only has the one upgrade slot, copy its frame for the speed upgrade slot
+		graphics.blit(GUI_TEXTURE, xStart + JumboFurnaceMenu.SPEED_UPGRADE_SLOT_X - 1, yStart + JumboFurnaceMenu.SPEED_UPGRADE_SLOT_Y - 1,
+			JumboFurnaceMenu.ORTHOFURNACE_SLOT_X - 1, JumboFurnaceMenu.ORTHOFURNACE_SLOT_Y - 1, SLOT_FRAME_SIZE, SLOT_FRAME_SIZE);
 		
 		// draw progress bars
 		if (this.menu.isBurning())
@@ -74,20 +226,30 @@ public class JumboFurnaceScreen extends AbstractContainerScreen<JumboFurnaceMenu
 //		graphics.blit(GUI_TEXTURE, xStart + COOK_METER_TO_X, yStart + COOK_METER_TO_Y, COOK_METER_FROM_X, COOK_METER_FROM_Y, cookProgress, COOK_METER_HEIGHT);
 		// debug recipes to make sure we're doing it right
 		graphics.drawString(Minecraft.getInstance().font, Component.literal("x" + String.valueOf(this.menu.getCurrentRecipeCount())), xStart + COOK_METER_TO_X + 10, yStart + COOK_METER_TO_Y + 20, 0x373737, false);
+		
+		int pageCount = this.menu.getPageCount();
+		if (pageCount > 1)
+		{
+			Component pageLabel = Component.translatable(PAGE, this.menu.getPage() + 1, pageCount);
+			graphics.drawString(this.font, pageLabel, xStart + PAGE_LABEL_X - this.font.width(pageLabel) / 2, yStart + PAGE_LABEL_Y, 0x373737, false);
+		}
 	}
 	
 	private int getCookMeterPixels(float partialTicks)
 	{
-		int recipes = this.menu.getCurrentRecipeCount();
-		if (recipes <= 0)
+		// show the progress of whichever recipe is closest to completion
+		long gameTime = this.getGameTime();
+		float progress = 0F;
+		for (RecipeProgressPayload.Entry entry : this.menu.getRecipeProgress())
 		{
-			return 0;
+			progress = Math.max(progress, this.menu.getRecipeProgress(entry, gameTime));
 		}
-		if (this.menu.getBurnTimeRemaining() <= 0)
-		{
-			return COOK_METER_WIDTH / 2;
-		} 
-		long gameTime = (long)(Util.getMillis() / 50D) % COOK_METER_WIDTH;
-		return (int) gameTime;
+		return (int)(progress * COOK_METER_WIDTH);
+	}
+	
+	private long getGameTime()
+	{
+		Minecraft minecraft = Minecraft.getInstance();
+		return minecraft.level == null ? 0L : minecraft.level.getGameTime();
 	}
 }
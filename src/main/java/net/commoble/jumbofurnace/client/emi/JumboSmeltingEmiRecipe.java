@@ -10,6 +10,7 @@ import dev.emi.emi.api.render.EmiTexture;
 import dev.emi.emi.api.stack.EmiIngredient;
 import dev.emi.emi.api.stack.EmiStack;
 import dev.emi.emi.api.widget.WidgetHolder;
+import net.commoble.jumbofurnace.jumbo_furnace.SpeedUpgrade;
 import net.commoble.jumbofurnace.recipes.JumboFurnaceRecipe;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.Font;
@@ -77,7 +78,10 @@ public record JumboSmeltingEmiRecipe(ResourceLocation id, List<EmiIngredient> in
 	{
 		widgets.addTexture(EmiTexture.SHAPELESS, 56, 2);
 		widgets.addFillingArrow(70, 18, 50 * this.cookingTime).tooltip((mx, my) -> {
-			return List.of(ClientTooltipComponent.create(Component.translatable("emi.cooking.time", this.cookingTime / 20f).getVisualOrderText()));
+			// show the time with speed upgrades as well
+			return SpeedUpgrade.getCookingTimeTooltip(this.cookingTime).stream()
+				.map(line -> ClientTooltipComponent.create(line.getVisualOrderText()))
+				.toList();
 		});
 		widgets.addTexture(EmiTexture.EMPTY_FLAME, 74, 37);
 		widgets.addAnimatedTexture(EmiTexture.FULL_FLAME, 74, 37, 4000, false, true, true);
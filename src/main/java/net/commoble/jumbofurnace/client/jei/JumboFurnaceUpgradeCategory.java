@@ -1,6 +1,7 @@
 package net.commoble.jumbofurnace.client.jei;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import com.google.common.collect.Streams;
 
@@ -83,7 +84,11 @@ public class JumboFurnaceUpgradeCategory implements IRecipeCategory<JumboFurnace
 	public void setRecipe(IRecipeLayoutBuilder builder, JumboFurnaceUpgrade recipe, IFocusGroup focuses)
 	{
 		builder.addSlot(RecipeIngredientRole.CATALYST, 50, 5)
-			.addItemStacks(Streams.stream(BuiltInRegistries.ITEM.getTagOrEmpty(JumboFurnace.MULTIPROCESSING_UPGRADE_TAG))
+			.addItemStacks(Stream.concat(
+					Streams.stream(BuiltInRegistries.ITEM.getTagOrEmpty(JumboFurnace.MULTIPROCESSING_UPGRADE_TAG)),
+					BuiltInRegistries.ITEM.getDataMap(JumboFurnace.MULTIPROCESS_UPGRADE_DATA).keySet().stream()
+						.flatMap(key -> BuiltInRegistries.ITEM.getHolder(key).stream()))
+				.distinct()
 				.map(ItemStack::new)
 				.toList());
 	}
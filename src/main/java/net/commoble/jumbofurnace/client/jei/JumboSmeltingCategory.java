@@ -4,6 +4,7 @@ import java.util.List;
 
 import mezz.jei.api.constants.VanillaTypes;
 import mezz.jei.api.gui.builder.IRecipeLayoutBuilder;
+import mezz.jei.api.gui.builder.ITooltipBuilder;
 import mezz.jei.api.gui.drawable.IDrawable;
 import mezz.jei.api.gui.drawable.IDrawableAnimated;
 import mezz.jei.api.gui.ingredient.IRecipeSlotsView;
@@ -14,6 +15,7 @@ import mezz.jei.api.recipe.RecipeType;
 import mezz.jei.api.recipe.category.IRecipeCategory;
 import net.commoble.jumbofurnace.JumboFurnace;
 import net.commoble.jumbofurnace.Names;
+import net.commoble.jumbofurnace.jumbo_furnace.SpeedUpgrade;
 import net.commoble.jumbofurnace.recipes.JumboFurnaceRecipe;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.Font;
@@ -90,6 +92,16 @@ public class JumboSmeltingCategory implements IRecipeCategory<JumboFurnaceRecipe
 		}
 	}
 
+	@Override
+	public void getTooltip(ITooltipBuilder tooltip, JumboFurnaceRecipe recipe, IRecipeSlotsView recipeSlotsView, double mouseX, double mouseY)
+	{
+		// show the cooking time, and the time with speed upgrades, over the arrow
+		if (mouseX >= 70 && mouseX < 70 + this.arrow.getWidth() && mouseY >= 18 && mouseY < 18 + this.arrow.getHeight())
+		{
+			tooltip.addAll(SpeedUpgrade.getCookingTimeTooltip(recipe.cookingTime()));
+		}
+	}
+
 	@Override
 	public void setRecipe(IRecipeLayoutBuilder recipeLayout, JumboFurnaceRecipe recipe, IFocusGroup focuses)
 	{
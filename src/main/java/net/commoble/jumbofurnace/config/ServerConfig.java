@@ -2,8 +2,9 @@ package net.commoble.jumbofurnace.config;
 
 import net.neoforged.neoforge.common.ModConfigSpec;
 import net.neoforged.neoforge.common.ModConfigSpec.BooleanValue;
+import net.neoforged.neoforge.common.ModConfigSpec.IntValue;
 
-public record ServerConfig(BooleanValue allowShearing)
+public record ServerConfig(BooleanValue allowShearing, IntValue maxBackstock, IntValue bufferSlotCapacity, IntValue energyPerHeat, BooleanValue optimizingPlanner, IntValue plannerTimeBudget)
 {	
 	public static ServerConfig create(ModConfigSpec.Builder builder)
 	{
@@ -14,6 +15,29 @@ public record ServerConfig(BooleanValue allowShearing)
 			.define("shearable", true);
 		builder.pop();
 		
-		return new ServerConfig(allowShearing);
+		builder.push("Processing Settings");
+		IntValue maxBackstock = builder
+			.comment("Max Backstock: Items that don't fit in a jumbo furnace's output are kept until there's room. Furnaces won't start new recipes while they're keeping at least this many items")
+			.translation("jumbofurnace.max_backstock")
+			.defineInRange("max_backstock", 576, 1, Integer.MAX_VALUE);
+		IntValue bufferSlotCapacity = builder
+			.comment("Buffer Slot Capacity: How many of a stackable item each of a jumbo furnace's input and output slots can hold. Values at or below an item's max stack size (e.g. 0) leave slots holding ordinary stacks")
+			.translation("jumbofurnace.buffer_slot_capacity")
+			.defineInRange("buffer_slot_capacity", 0, 0, 1_000_000);
+		IntValue energyPerHeat = builder
+			.comment("Energy Per Heat: How much energy (FE) jumbo furnaces use for each tick of heat when powered through their energy capability. 0 disables energy heating")
+			.translation("jumbofurnace.energy_per_heat")
+			.defineInRange("energy_per_heat", 10, 0, 1_000_000);
+		BooleanValue optimizingPlanner = builder
+			.comment("Optimizing Planner: When jumbo furnaces can start more than one recipe, search for the combination of recipes that fills the most recipe slots, instead of starting as many of each recipe as possible in turn")
+			.translation("jumbofurnace.optimizing_planner")
+			.define("optimizing_planner", false);
+		IntValue plannerTimeBudget = builder
+			.comment("Planner Time Budget: Most time in microseconds that the optimizing planner may spend searching each time a furnace looks for recipes to start. The best plan found so far is used when time runs out, and the usual plan is always finished first")
+			.translation("jumbofurnace.planner_time_budget")
+			.defineInRange("planner_time_budget", 200, 1, 50_000);
+		builder.pop();
+		
+		return new ServerConfig(allowShearing, maxBackstock, bufferSlotCapacity, energyPerHeat, optimizingPlanner, plannerTimeBudget);
 	}
 }
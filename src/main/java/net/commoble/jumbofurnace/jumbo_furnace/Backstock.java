@@ -0,0 +1,118 @@
+package net.commoble.jumbofurnace.jumbo_furnace;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import it.unimi.dsi.fastutil.objects.Object2IntLinkedOpenCustomHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.ItemStackLinkedSet;
+
+/**
+ * Items that a jumbo furnace produced but couldn't fit in its output slots.
+ * Stored as a count for each distinct item (with components), in the order the items were first added,
+ * so stacks of the same item are always merged and refilling an output slot doesn't have to search or shift anything.
+ */
+public class Backstock
+{
+	// keys are count-1 copies, and must never be modified
+	private final Object2IntLinkedOpenCustomHashMap<ItemStack> counts = new Object2IntLinkedOpenCustomHashMap<>(ItemStackLinkedSet.TYPE_AND_TAG);
+	private long totalCount = 0L;
+	
+	public boolean isEmpty()
+	{
+		return this.counts.isEmpty();
+	}
+	
+	/**
+	 * @return The total number of items in the backstock
+	 */
+	public long getTotalCount()
+	{
+		return this.totalCount;
+	}
+	
+	/**
+	 * Adds a stack to the backstock, merging it with any of the same item
+	 * @param stack ItemStack to add, not modified
+	 */
+	public void add(ItemStack stack)
+	{
+		if (stack.isEmpty())
+			return;
+		
+		int count = stack.getCount();
+		int existing = this.counts.getInt(stack);
+		if (existing > 0)
+		{
+			this.counts.put(stack, (int)Math.min(Integer.MAX_VALUE, (long)existing + count));
+		}
+		else
+		{
+			this.counts.put(stack.copyWithCount(1), count);
+		}
+		this.totalCount += count;
+	}
+	
+	/**
+	 * Removes a single stack of whichever item was added to the backstock first
+	 * @return A stack of up to that item's max stack size, or an empty stack if the backstock is empty
+	 */
+	public ItemStack removeFirstStack()
+	{
+		if (this.counts.isEmpty())
+		{
+			return ItemStack.EMPTY;
+		}
+		ItemStack item = this.counts.firstKey();
+		int count = this.counts.getInt(item);
+		int removed = Math.min(count, item.getMaxStackSize());
+		if (removed >= count)
+		{
+			this.counts.removeFirstInt();
+		}
+		else
+		{
+			this.counts.put(item, count - removed);
+		}
+		this.totalCount -= removed;
+		return item.copyWithCount(removed);
+	}
+	
+	public void clear()
+	{
+		this.counts.clear();
+		this.totalCount = 0L;
+	}
+	
+	/**
+	 * @return One stack per distinct item, with counts that may exceed the item's max stack size
+	 */
+	public List<ItemStack> getEntries()
+	{
+		List<ItemStack> entries = new ArrayList<>(this.counts.size());
+		for (Object2IntMap.Entry<ItemStack> entry : this.counts.object2IntEntrySet())
+		{
+			entries.add(entry.getKey().copyWithCount(entry.getIntValue()));
+		}
+		return entries;
+	}
+	
+	/**
+	 * @return The backstock's contents split into stacks no larger than their max stack sizes
+	 */
+	public List<ItemStack> getStacks()
+	{
+		List<ItemStack> stacks = new ArrayList<>();
+		for (Object2IntMap.Entry<ItemStack> entry : this.counts.object2IntEntrySet())
+		{
+			ItemStack item = entry.getKey();
+			int maxStackSize = item.getMaxStackSize();
+			for (int remaining = entry.getIntValue(); remaining > 0; remaining -= maxStackSize)
+			{
+				stacks.add(item.copyWithCount(Math.min(remaining, maxStackSize)));
+			}
+		}
+		return stacks;
+	}
+}
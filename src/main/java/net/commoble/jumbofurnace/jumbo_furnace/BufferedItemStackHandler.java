@@ -0,0 +1,124 @@
+package net.commoble.jumbofurnace.jumbo_furnace;
+
+import java.util.function.IntSupplier;
+
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.world.item.ItemStack;
+
+/**
+ * ItemStackHandler whose slots can each hold more than a stack of stackable items, up to a configurable capacity.
+ * Counts too large for ItemStack's codec are saved separately from the item.
+ */
+public class BufferedItemStackHandler extends IndexedItemStackHandler
+{
+	public static final String ITEMS = "Items";
+	public static final String SLOT = "Slot";
+	public static final String SIZE = "Size";
+	public static final String BUFFERED_COUNT = "buffered_count";
+	/** Largest count that ItemStack's codec can save **/
+	public static final int MAX_CODEC_COUNT = 99;
+	
+	private final IntSupplier capacity;
+	
+	/**
+	 * @param size Number of slots
+	 * @param capacity Supplier of the number of stackable items each slot can hold; values at or below an item's max stack size have no effect
+	 */
+	public BufferedItemStackHandler(int size, IntSupplier capacity)
+	{
+		super(size);
+		this.capacity = capacity;
+	}
+	
+	/**
+	 * @return The number of stackable items each slot can hold, or 0 if slots hold ordinary stacks
+	 */
+	public int getCapacity()
+	{
+		return Math.max(0, this.capacity.getAsInt());
+	}
+	
+	/**
+	 * @param slot A slot
+	 * @param stack An itemstack
+	 * @return The number of that item the slot can hold
+	 */
+	public int getCapacityFor(int slot, ItemStack stack)
+	{
+		return this.getStackLimit(slot, stack);
+	}
+
+	@Override
+	public int getSlotLimit(int slot)
+	{
+		return Math.max(this.getCapacity(), super.getSlotLimit(slot));
+	}
+
+	@Override
+	protected int getStackLimit(int slot, ItemStack stack)
+	{
+		// unstackable items tend to have unique data, don't buffer them
+		int limit = super.getStackLimit(slot, stack);
+		return stack.isStackable()
+			? Math.max(this.getCapacity(), limit)
+			: limit;
+	}
+
+	@Override
+	public CompoundTag serializeNBT(HolderLookup.Provider registries)
+	{
+		// same format as ItemStackHandler, except large counts are saved separately
+		ListTag itemTags = new ListTag();
+		for (int slot=0; slot<this.stacks.size(); slot++)
+		{
+			ItemStack stack = this.stacks.get(slot);
+			if (!stack.isEmpty())
+			{
+				CompoundTag itemTag = new CompoundTag();
+				itemTag.putInt(SLOT, slot);
+				if (stack.getCount() > MAX_CODEC_COUNT)
+				{
+					itemTag.putInt(BUFFERED_COUNT, stack.getCount());
+					itemTags.add(stack.copyWithCount(1).save(registries, itemTag));
+				}
+				else
+				{
+					itemTags.add(stack.save(registries, itemTag));
+				}
+			}
+		}
+		CompoundTag nbt = new CompoundTag();
+		nbt.put(ITEMS, itemTags);
+		nbt.putInt(SIZE, this.stacks.size());
+		return nbt;
+	}
+
+	@Override
+	public void deserializeNBT(HolderLookup.Provider registries, CompoundTag nbt)
+	{
+		super.deserializeNBT(registries, nbt);
+		ListTag itemTags = nbt.getList(ITEMS, Tag.TAG_COMPOUND);
+		boolean changedCounts = false;
+		for (int i=0; i<itemTags.size(); i++)
+		{
+			CompoundTag itemTag = itemTags.getCompound(i);
+			int slot = itemTag.getInt(SLOT);
+			if (itemTag.contains(BUFFERED_COUNT) && slot >= 0 && slot < this.stacks.size())
+			{
+				ItemStack stack = this.stacks.get(slot);
+				if (!stack.isEmpty())
+				{
+					stack.setCount(itemTag.getInt(BUFFERED_COUNT));
+					changedCounts = true;
+				}
+			}
+		}
+		if (changedCounts)
+		{
+			this.rebuildIndex();
+		}
+	}
+}
@@ -0,0 +1,189 @@
+package net.commoble.jumbofurnace.jumbo_furnace;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import net.commoble.jumbofurnace.JumboFurnaceUtils;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
+
+/**
+ * Input itemhandler of a jumbo furnace that is linked into a cluster with the linked furnaces next to it.
+ * Items inserted into any furnace of the cluster go to whichever member has the most room to start new recipes,
+ * so one pipe can feed a whole row of furnaces without external balancing.
+ * The slots themselves are the furnace's own input slots.
+ */
+public class ClusterInputHandler implements CoreItemHandler
+{
+	/** Most furnaces that one cluster can distribute items to **/
+	public static final int MAX_CLUSTER_SIZE = 64;
+	
+	private final JumboFurnaceCoreBlockEntity te;
+	// members of the cluster (including us), found again whenever loaded cores or links change
+	private List<JumboFurnaceCoreBlockEntity> members = List.of();
+	private int membersRevision = -1;
+	
+	public ClusterInputHandler(JumboFurnaceCoreBlockEntity te)
+	{
+		this.te = te;
+	}
+
+	@Override
+	public JumboFurnaceCoreBlockEntity getCore()
+	{
+		return this.te;
+	}
+	
+	/**
+	 * @return The linked furnaces connected to ours through linked furnaces whose sides touch, including ours
+	 */
+	public List<JumboFurnaceCoreBlockEntity> getMembers()
+	{
+		int revision = LoadedCores.getRevision();
+		if (this.membersRevision != revision)
+		{
+			this.members = this.findMembers();
+			this.membersRevision = revision;
+		}
+		return this.members;
+	}
+	
+	private List<JumboFurnaceCoreBlockEntity> findMembers()
+	{
+		Level level = this.te.getLevel();
+		if (level == null || !this.te.isClusterLinked())
+		{
+			return List.of(this.te);
+		}
+		List<JumboFurnaceCoreBlockEntity> members = new ArrayList<>();
+		Set<BlockPos> visited = new ObjectOpenHashSet<>();
+		Deque<JumboFurnaceCoreBlockEntity> toVisit = new ArrayDeque<>();
+		visited.add(this.te.getBlockPos());
+		toVisit.add(this.te);
+		while (!toVisit.isEmpty() && members.size() < MAX_CLUSTER_SIZE)
+		{
+			JumboFurnaceCoreBlockEntity member = toVisit.poll();
+			members.add(member);
+			// furnaces whose sides touch squarely have cores one block further apart than both their radii
+			int memberRadius = member.getTier().radius();
+			for (Direction direction : Direction.values())
+			{
+				for (FurnaceTier tier : FurnaceTier.values())
+				{
+					BlockPos neighborPos = member.getBlockPos().relative(direction, memberRadius + tier.radius() + 1);
+					JumboFurnaceCoreBlockEntity neighbor = LoadedCores.get(level, neighborPos);
+					if (neighbor != null && neighbor.getTier() == tier && neighbor.isClusterLinked() && visited.add(neighborPos))
+					{
+						toVisit.add(neighbor);
+					}
+				}
+			}
+		}
+		return members;
+	}
+	
+	/**
+	 * @param core A member of the cluster
+	 * @return How many more crafts the member could start with the items it's been given so far;
+	 * members that can't fit any more results in their output have no room
+	 */
+	private static long getRoom(JumboFurnaceCoreBlockEntity core)
+	{
+		if (core.isBackstockFull())
+			return Long.MIN_VALUE;
+		
+		// items waiting in the input will take recipe slots too, count each as a craft
+		long waitingItems = 0;
+		int slots = core.input.getSlots();
+		for (int slot=0; slot<slots; slot++)
+		{
+			waitingItems += core.input.getStackInSlot(slot).getCount();
+		}
+		return (long)core.getMaxSimultaneousRecipes() - core.getInFlightCraftCount() - waitingItems;
+	}
+	
+	/**
+	 * @param core A member of the cluster
+	 * @return How many of the member's output slots are empty
+	 */
+	private static int getOutputHeadroom(JumboFurnaceCoreBlockEntity core)
+	{
+		int emptySlots = 0;
+		int slots = core.output.getSlots();
+		for (int slot=0; slot<slots; slot++)
+		{
+			if (core.output.getStackInSlot(slot).isEmpty())
+			{
+				emptySlots++;
+			}
+		}
+		return emptySlots;
+	}
+
+	@Override
+	public int getSlots()
+	{
+		return this.te.input.getSlots();
+	}
+
+	@Override
+	public ItemStack getStackInSlot(int slot)
+	{
+		return this.te.input.getStackInSlot(slot);
+	}
+
+	@Override
+	public ItemStack insertItem(int slot, ItemStack stack, boolean simulate)
+	{
+		if (stack.isEmpty())
+			return ItemStack.EMPTY;
+		
+		List<JumboFurnaceCoreBlockEntity> members = this.getMembers();
+		if (members.size() <= 1)
+			return this.te.input.insertItem(slot, stack, simulate);
+		
+		// offer the stack to the members with the most room first, then to the rest in turn if they can't take all of it
+		List<JumboFurnaceCoreBlockEntity> targets = new ArrayList<>(members);
+		targets.sort(Comparator.comparingLong(ClusterInputHandler::getRoom)
+			.thenComparingInt(ClusterInputHandler::getOutputHeadroom)
+			.reversed());
+		ItemStack remaining = stack;
+		for (JumboFurnaceCoreBlockEntity target : targets)
+		{
+			remaining = JumboFurnaceUtils.insertItemStacked(target.input, remaining, simulate);
+			if (remaining.isEmpty())
+				break;
+		}
+		return remaining;
+	}
+
+	@Override
+	public ItemStack extractItem(int slot, int amount, boolean simulate)
+	{
+		return this.te.input.extractItem(slot, amount, simulate);
+	}
+
+	@Override
+	public int getSlotLimit(int slot)
+	{
+		return this.te.input.getSlotLimit(slot);
+	}
+
+	@Override
+	public boolean isItemValid(int slot, ItemStack stack)
+	{
+		for (JumboFurnaceCoreBlockEntity member : this.getMembers())
+		{
+			if (member.input.isItemValid(slot, stack))
+				return true;
+		}
+		return false;
+	}
+}
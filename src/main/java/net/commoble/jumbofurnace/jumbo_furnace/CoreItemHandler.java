@@ -0,0 +1,17 @@
+package net.commoble.jumbofurnace.jumbo_furnace;
+
+import net.neoforged.neoforge.items.IItemHandler;
+
+/**
+ * An itemhandler belonging to a jumbo furnace core.
+ * Anything moving many stacks in or out at once can use {@link JumboFurnaceCoreBlockEntity#bulkTransfer(IItemHandler, java.util.function.Supplier)}
+ * so that the furnace notifies its neighbors once instead of once per slot.
+ * Itemhandlers that don't implement this, such as simulator copies and other mods' inventories, aren't batched.
+ */
+public interface CoreItemHandler extends IItemHandler
+{
+	/**
+	 * @return The core this itemhandler belongs to
+	 */
+	public JumboFurnaceCoreBlockEntity getCore();
+}
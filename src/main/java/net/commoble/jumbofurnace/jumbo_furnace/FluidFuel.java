@@ -0,0 +1,32 @@
+package net.commoble.jumbofurnace.jumbo_furnace;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+
+import net.commoble.jumbofurnace.JumboFurnace;
+import net.minecraft.util.ExtraCodecs;
+import net.neoforged.neoforge.fluids.FluidStack;
+
+/**
+ * Data map value for fluids that jumbo furnaces can burn from their fuel tank, in data/<namespace>/data_maps/fluid/fluid_fuel.json
+ * @param burnTime Heat given by each millibucket of the fluid
+ */
+public record FluidFuel(int burnTime)
+{
+	public static final Codec<FluidFuel> CODEC = RecordCodecBuilder.create(builder -> builder.group(
+			ExtraCodecs.POSITIVE_INT.fieldOf("burn_time").forGetter(FluidFuel::burnTime)
+		).apply(builder, FluidFuel::new));
+	
+	/**
+	 * @param stack A fluidstack
+	 * @return Heat given by each millibucket of the fluid, or 0 if it isn't a fuel
+	 */
+	public static int getBurnTime(FluidStack stack)
+	{
+		if (stack.isEmpty())
+			return 0;
+		
+		FluidFuel fuel = stack.getFluidHolder().getData(JumboFurnace.FLUID_FUEL_DATA);
+		return fuel == null ? 0 : fuel.burnTime();
+	}
+}
@@ -0,0 +1,53 @@
+package net.commoble.jumbofurnace.jumbo_furnace;
+
+import net.neoforged.neoforge.fluids.FluidStack;
+import net.neoforged.neoforge.fluids.capability.templates.FluidTank;
+
+/**
+ * Tank of fluid fuel in a jumbo furnace's core, filled through the sides of the furnace's middle layer
+ */
+public class FluidFuelTank extends FluidTank
+{
+	public static final int CAPACITY = 16000;
+	/** Most fluid burned at once, in millibuckets **/
+	public static final int BURN_AMOUNT = 1000;
+	
+	private final JumboFurnaceCoreBlockEntity te;
+	
+	public FluidFuelTank(JumboFurnaceCoreBlockEntity te)
+	{
+		super(CAPACITY, stack -> FluidFuel.getBurnTime(stack) > 0);
+		this.te = te;
+	}
+	
+	/**
+	 * @return Heat that would be given by burning the next amount of fluid, or 0 if the tank has no fuel
+	 */
+	public int getNextBurnTime()
+	{
+		FluidStack fluid = this.getFluid();
+		long burnTime = (long)FluidFuel.getBurnTime(fluid) * Math.min(BURN_AMOUNT, fluid.getAmount());
+		return (int)Math.min(Integer.MAX_VALUE, burnTime);
+	}
+	
+	/**
+	 * Drains the next amount of fluid to burn
+	 * @return Heat given by the burned fluid, or 0 if the tank has no fuel
+	 */
+	public int burnNext()
+	{
+		int burnTime = this.getNextBurnTime();
+		if (burnTime > 0)
+		{
+			this.drain(BURN_AMOUNT, FluidAction.EXECUTE);
+		}
+		return burnTime;
+	}
+
+	@Override
+	protected void onContentsChanged()
+	{
+		super.onContentsChanged();
+		this.te.markFuelTankChanged();
+	}
+}
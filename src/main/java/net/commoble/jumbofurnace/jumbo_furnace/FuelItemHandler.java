@@ -4,16 +4,22 @@ import net.commoble.jumbofurnace.JumboFurnaceUtils;
 import net.minecraft.world.item.ItemStack;
 import net.neoforged.neoforge.items.ItemStackHandler;
 
-public class FuelItemHandler extends ItemStackHandler
+public class FuelItemHandler extends ItemStackHandler implements CoreItemHandler
 {
 	public final JumboFurnaceCoreBlockEntity te;
 	
-	public FuelItemHandler(JumboFurnaceCoreBlockEntity te)
+	public FuelItemHandler(JumboFurnaceCoreBlockEntity te, int slots)
 	{
-		super(9);
+		super(slots);
 		this.te = te;
 	}
 
+	@Override
+	public JumboFurnaceCoreBlockEntity getCore()
+	{
+		return this.te;
+	}
+
 	@Override
 	public boolean isItemValid(int slot, ItemStack stack)
 	{
@@ -24,7 +30,6 @@ public class FuelItemHandler extends ItemStackHandler
 	protected void onContentsChanged(int slot)
 	{
 		super.onContentsChanged(slot);
-		this.te.setChanged();
 		this.te.markFuelInventoryChanged();
 	}
 	
@@ -0,0 +1,116 @@
+package net.commoble.jumbofurnace.jumbo_furnace;
+
+import net.commoble.jumbofurnace.JumboFurnace;
+import net.neoforged.neoforge.energy.IEnergyStorage;
+
+/**
+ * Energy buffer in a jumbo furnace's core, converted to heat in bulk instead of burning fuel items.
+ * How much energy each tick of heat costs is configurable; a cost of 0 disables energy heating.
+ */
+public class FurnaceEnergyStorage implements IEnergyStorage
+{
+	/** How much heat the buffer can hold the energy for **/
+	public static final int HEAT_CAPACITY = 16000;
+	/** Most heat converted from energy at once, the same as a piece of coal **/
+	public static final int BURN_AMOUNT = 1600;
+	
+	private final JumboFurnaceCoreBlockEntity te;
+	private int energy = 0;
+	
+	public FurnaceEnergyStorage(JumboFurnaceCoreBlockEntity te)
+	{
+		this.te = te;
+	}
+	
+	/**
+	 * @return How much energy each tick of heat costs, or 0 if furnaces can't be heated with energy
+	 */
+	public static int getEnergyPerHeat()
+	{
+		return JumboFurnace.get().serverConfig.energyPerHeat().get();
+	}
+	
+	/**
+	 * @return Heat that would be given by converting the next amount of energy, or 0 if there isn't enough energy for any heat
+	 */
+	public int getNextBurnTime()
+	{
+		int energyPerHeat = getEnergyPerHeat();
+		return energyPerHeat <= 0
+			? 0
+			: Math.min(BURN_AMOUNT, this.energy / energyPerHeat);
+	}
+	
+	/**
+	 * Converts the next amount of energy to heat
+	 * @return Heat given by the converted energy, or 0 if there isn't enough energy for any heat
+	 */
+	public int burnNext()
+	{
+		int burnTime = this.getNextBurnTime();
+		if (burnTime > 0)
+		{
+			this.energy -= burnTime * getEnergyPerHeat();
+			this.te.markEnergyChanged(false);
+		}
+		return burnTime;
+	}
+	
+	/**
+	 * Sets the stored energy without notifying the furnace, for loading saved data
+	 * @param energy Energy to store
+	 */
+	public void setEnergy(int energy)
+	{
+		this.energy = Math.max(0, energy);
+	}
+
+	@Override
+	public int receiveEnergy(int toReceive, boolean simulate)
+	{
+		if (!this.canReceive() || toReceive <= 0)
+		{
+			return 0;
+		}
+		int received = Math.max(0, Math.min(toReceive, this.getMaxEnergyStored() - this.energy));
+		if (!simulate && received > 0)
+		{
+			// only recheck recipes if we couldn't make any heat before
+			// otherwise cables feeding us every tick would replan every tick
+			boolean couldHeat = this.getNextBurnTime() > 0;
+			this.energy += received;
+			this.te.markEnergyChanged(!couldHeat && this.getNextBurnTime() > 0);
+		}
+		return received;
+	}
+
+	@Override
+	public int extractEnergy(int toExtract, boolean simulate)
+	{
+		return 0;
+	}
+
+	@Override
+	public int getEnergyStored()
+	{
+		return this.energy;
+	}
+
+	@Override
+	public int getMaxEnergyStored()
+	{
+		return (int)Math.min(Integer.MAX_VALUE, (long)getEnergyPerHeat() * HEAT_CAPACITY);
+	}
+
+	@Override
+	public boolean canExtract()
+	{
+		return false;
+	}
+
+	@Override
+	public boolean canReceive()
+	{
+		return getEnergyPerHeat() > 0;
+	}
+}
@@ -0,0 +1,145 @@
+package net.commoble.jumbofurnace.jumbo_furnace;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import net.commoble.jumbofurnace.JumboFurnaceUtils;
+import net.commoble.jumbofurnace.recipes.JumboFurnaceRecipe;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.ItemStack;
+import net.neoforged.neoforge.items.IItemHandler;
+
+/**
+ * A batch of crafts of one recipe submitted to a jumbo furnace by another mod (e.g. an autocrafting system)
+ * via {@link JumboFurnaceCoreBlockEntity#submitJob}.
+ * Jobs are started in the order they were submitted, before the furnace looks for recipes in its own input slots.
+ * Queued jobs aren't saved; if the furnace unloads before a job starts, the job's inputs are put in the furnace's output instead.
+ */
+public class FurnaceJob
+{
+	/** Reasons a job can be rejected when it is submitted **/
+	public static enum Rejection
+	{
+		/** There is no smelting or jumbo smelting recipe with the given id **/
+		UNKNOWN_RECIPE,
+		/** The given inputs aren't exactly what the given number of crafts of the recipe consume **/
+		INVALID_INPUTS,
+		/** The furnace can't reserve room in its output for the job's results **/
+		NO_OUTPUT_CAPACITY
+	}
+	
+	/**
+	 * Callbacks for a job's progress, which are invoked during the furnace's tick
+	 */
+	public static interface Listener
+	{
+		public static final Listener NONE = new Listener() {};
+		
+		/**
+		 * Called when the job's inputs have been consumed and it has started cooking
+		 * @param job The job
+		 */
+		public default void onStarted(FurnaceJob job) {}
+		
+		/**
+		 * Called when the job has finished cooking and its results have been delivered
+		 * @param job The job
+		 * @param undelivered Results that didn't fit in the job's target and were put in the furnace's output instead
+		 */
+		public default void onCompleted(FurnaceJob job, List<ItemStack> undelivered) {}
+	}
+	
+	private final ResourceLocation recipeId;
+	private final JumboFurnaceRecipe recipe;
+	private final int multiplier;
+	private final List<ItemStack> inputs;
+	private final List<ItemStack> remainders;
+	private final @Nullable IItemHandler target;
+	private final Listener listener;
+	
+	FurnaceJob(ResourceLocation recipeId, JumboFurnaceRecipe recipe, int multiplier, List<ItemStack> inputs, List<ItemStack> remainders, @Nullable IItemHandler target, Listener listener)
+	{
+		this.recipeId = recipeId;
+		this.recipe = recipe;
+		this.multiplier = multiplier;
+		this.inputs = inputs;
+		this.remainders = remainders;
+		this.target = target;
+		this.listener = listener;
+	}
+	
+	public ResourceLocation recipeId()
+	{
+		return this.recipeId;
+	}
+	
+	public JumboFurnaceRecipe recipe()
+	{
+		return this.recipe;
+	}
+	
+	/**
+	 * @return Number of crafts of the recipe in the job; the job needs this many free recipe slots to start
+	 */
+	public int multiplier()
+	{
+		return this.multiplier;
+	}
+	
+	/**
+	 * @return The items the job consumes when it starts, merged into as few stacks as possible
+	 */
+	public List<ItemStack> inputs()
+	{
+		return this.inputs;
+	}
+	
+	/**
+	 * @return Crafting remainders of the inputs, which are put in the furnace's output when the job starts
+	 */
+	public List<ItemStack> remainders()
+	{
+		return this.remainders;
+	}
+	
+	/**
+	 * @return Inventory to deliver the job's results to, or null to put them in the furnace's output
+	 */
+	@Nullable
+	public IItemHandler target()
+	{
+		return this.target;
+	}
+	
+	public Listener listener()
+	{
+		return this.listener;
+	}
+	
+	/**
+	 * @return The results of every craft in the job, as one stack per recipe result (counts may exceed max stack sizes)
+	 */
+	public List<ItemStack> results()
+	{
+		List<ItemStack> results = new ArrayList<>(this.recipe.results().size());
+		for (ItemStack result : this.recipe.results())
+		{
+			results.add(result.copyWithCount((int)Math.min(Integer.MAX_VALUE, (long)result.getCount() * this.multiplier)));
+		}
+		return results;
+	}
+	
+	/**
+	 * Delivers a result of the job to the job's target
+	 * @param stack The result to deliver
+	 * @return Whatever didn't fit in the target, or the whole stack if the job has no target
+	 */
+	ItemStack deliver(ItemStack stack)
+	{
+		return this.target == null
+			? stack
+			: JumboFurnaceUtils.insertItemStacked(this.target, stack, false);
+	}
+}
@@ -0,0 +1,96 @@
+package net.commoble.jumbofurnace.jumbo_furnace;
+
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.IntegerProperty;
+
+/**
+ * The sizes jumbo furnaces come in. Each tier is its own block, whose states are the positions in its cube.
+ * Block state properties have to exist when blocks are registered, so tiers are defined here rather than in data.
+ */
+public enum FurnaceTier
+{
+	/** 3x3x3 furnace, formed by placing furnaceable blocks or from a jumbo furnace item **/
+	JUMBO(1, 9, 1),
+	/** 5x5x5 furnace, placed from a huge jumbo furnace item **/
+	HUGE(2, 27, 4);
+
+	private final int radius;
+	private final int size;
+	private final int volume;
+	private final int slots;
+	private final int recipeMultiplier;
+	private final IntegerProperty x;
+	private final IntegerProperty y;
+	private final IntegerProperty z;
+
+	FurnaceTier(int radius, int slots, int recipeMultiplier)
+	{
+		this.radius = radius;
+		this.size = radius * 2 + 1;
+		this.volume = this.size * this.size * this.size;
+		this.slots = slots;
+		this.recipeMultiplier = recipeMultiplier;
+		this.x = IntegerProperty.create("x", 0, this.size - 1);
+		this.y = IntegerProperty.create("y", 0, this.size - 1);
+		this.z = IntegerProperty.create("z", 0, this.size - 1);
+	}
+
+	/**
+	 * @param state A blockstate
+	 * @return The tier of the furnace block the state belongs to, or the smallest tier if it isn't a furnace block
+	 */
+	public static FurnaceTier of(BlockState state)
+	{
+		return state.getBlock() instanceof JumboFurnaceBlock block
+			? block.getTier()
+			: JUMBO;
+	}
+
+	/** @return Number of blocks between the core and each face of the furnace **/
+	public int radius()
+	{
+		return this.radius;
+	}
+
+	/** @return Width of the furnace's cube **/
+	public int size()
+	{
+		return this.size;
+	}
+
+	/** @return Number of blocks in the furnace **/
+	public int volume()
+	{
+		return this.volume;
+	}
+
+	/** @return Number of slots in each of the furnace's input, fuel, and output inventories **/
+	public int slots()
+	{
+		return this.slots;
+	}
+
+	/** @return Multiplier to the number of recipes the furnace can cook at once **/
+	public int recipeMultiplier()
+	{
+		return this.recipeMultiplier;
+	}
+
+	/** @return The property for a block's east-west position in the furnace **/
+	public IntegerProperty x()
+	{
+		return this.x;
+	}
+
+	/** @return The property for a block's vertical position in the furnace **/
+	public IntegerProperty y()
+	{
+		return this.y;
+	}
+
+	/** @return The property for a block's north-south position in the furnace **/
+	public IntegerProperty z()
+	{
+		return this.z;
+	}
+}
@@ -0,0 +1,131 @@
+package net.commoble.jumbofurnace.jumbo_furnace;
+
+import java.util.BitSet;
+
+import it.unimi.dsi.fastutil.ints.IntAVLTreeSet;
+import it.unimi.dsi.fastutil.ints.IntSortedSet;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenCustomHashMap;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.ItemStackLinkedSet;
+import net.neoforged.neoforge.items.ItemHandlerHelper;
+import net.neoforged.neoforge.items.ItemStackHandler;
+
+/**
+ * ItemStackHandler which keeps track of which slots are empty and which slots have room for more of each item,
+ * so that stacked inserts can go straight to the slots they'll end up in instead of checking every slot twice.
+ * The index is updated whenever a slot changes; subclasses overriding onContentsChanged or onLoad must call super.
+ */
+public class IndexedItemStackHandler extends ItemStackHandler
+{
+	private final BitSet emptySlots = new BitSet();
+	// non-empty slots that aren't full, by item (ignoring count), lowest slot first
+	private final Object2ObjectOpenCustomHashMap<ItemStack, IntSortedSet> partialSlots = new Object2ObjectOpenCustomHashMap<>(ItemStackLinkedSet.TYPE_AND_TAG);
+	// the key each slot is indexed under in partialSlots, or empty if it isn't
+	private ItemStack[] partialSlotKeys = new ItemStack[0];
+	
+	public IndexedItemStackHandler(int size)
+	{
+		super(size);
+		this.rebuildIndex();
+	}
+	
+	/**
+	 * Inserts an itemstack into partial stacks of the same item first, then into empty slots,
+	 * in the same order as {@link ItemHandlerHelper#insertItemStacked}
+	 * @param stack ItemStack to insert
+	 * @param simulate If true, our contents won't be changed
+	 * @return The remainder of the stack that couldn't be inserted
+	 */
+	public ItemStack insertStacked(ItemStack stack, boolean simulate)
+	{
+		if (stack.isEmpty())
+			return stack;
+		
+		IntSortedSet slotsWithItem = this.partialSlots.get(stack);
+		if (slotsWithItem != null)
+		{
+			// inserting changes the set, so iterate over a copy
+			for (int slot : slotsWithItem.toIntArray())
+			{
+				stack = this.insertItem(slot, stack, simulate);
+				if (stack.isEmpty())
+					return ItemStack.EMPTY;
+			}
+		}
+		for (int slot = this.emptySlots.nextSetBit(0); slot >= 0; slot = this.emptySlots.nextSetBit(slot+1))
+		{
+			stack = this.insertItem(slot, stack, simulate);
+			if (stack.isEmpty())
+				return ItemStack.EMPTY;
+		}
+		return stack;
+	}
+	
+	@Override
+	public void setSize(int size)
+	{
+		super.setSize(size);
+		this.rebuildIndex();
+	}
+
+	@Override
+	public void deserializeNBT(HolderLookup.Provider registries, CompoundTag nbt)
+	{
+		super.deserializeNBT(registries, nbt);
+		this.rebuildIndex();
+	}
+
+	@Override
+	protected void onContentsChanged(int slot)
+	{
+		super.onContentsChanged(slot);
+		this.updateIndex(slot);
+	}
+	
+	protected void rebuildIndex()
+	{
+		int size = this.stacks.size();
+		this.emptySlots.clear();
+		this.partialSlots.clear();
+		this.partialSlotKeys = new ItemStack[size];
+		for (int slot=0; slot<size; slot++)
+		{
+			this.partialSlotKeys[slot] = ItemStack.EMPTY;
+			this.updateIndex(slot);
+		}
+	}
+	
+	private void updateIndex(int slot)
+	{
+		if (slot < 0 || slot >= this.partialSlotKeys.length)
+			return;
+		
+		// unindex the slot's old contents
+		ItemStack oldKey = this.partialSlotKeys[slot];
+		if (!oldKey.isEmpty())
+		{
+			IntSortedSet oldSlots = this.partialSlots.get(oldKey);
+			if (oldSlots != null)
+			{
+				oldSlots.remove(slot);
+				if (oldSlots.isEmpty())
+				{
+					this.partialSlots.remove(oldKey);
+				}
+			}
+			this.partialSlotKeys[slot] = ItemStack.EMPTY;
+		}
+		
+		// then index its new contents
+		ItemStack stack = this.stacks.get(slot);
+		this.emptySlots.set(slot, stack.isEmpty());
+		if (!stack.isEmpty() && stack.getCount() < this.getStackLimit(slot, stack))
+		{
+			ItemStack key = stack.copyWithCount(1);
+			this.partialSlotKeys[slot] = key;
+			this.partialSlots.computeIfAbsent(key, k -> new IntAVLTreeSet()).add(slot);
+		}
+	}
+}
@@ -1,22 +1,36 @@
 package net.commoble.jumbofurnace.jumbo_furnace;
 
-import net.neoforged.neoforge.items.ItemStackHandler;
+import net.commoble.jumbofurnace.recipes.RecipeLock;
+import net.minecraft.world.item.ItemStack;
 
-public class InputItemHandler extends ItemStackHandler
+public class InputItemHandler extends BufferedItemStackHandler implements CoreItemHandler
 {
 	public final JumboFurnaceCoreBlockEntity te;
 	
-	public InputItemHandler(JumboFurnaceCoreBlockEntity te)
+	public InputItemHandler(JumboFurnaceCoreBlockEntity te, int slots)
 	{
-		super(9);
+		super(slots, JumboFurnaceCoreBlockEntity::getBufferSlotCapacity);
 		this.te = te;
 	}
 
+	@Override
+	public JumboFurnaceCoreBlockEntity getCore()
+	{
+		return this.te;
+	}
+
+	@Override
+	public boolean isItemValid(int slot, ItemStack stack)
+	{
+		// a locked furnace only takes items its recipe can use
+		RecipeLock lock = this.te.getRecipeLock();
+		return (lock == null || lock.accepts(stack)) && super.isItemValid(slot, stack);
+	}
+
 	@Override
 	protected void onContentsChanged(int slot)
 	{
 		super.onContentsChanged(slot);
-		this.te.setChanged();
 		this.te.markInputInventoryChanged();
 	}
 }
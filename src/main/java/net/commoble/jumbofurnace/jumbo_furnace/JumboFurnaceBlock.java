@@ -39,41 +39,148 @@ import net.minecraft.world.level.block.state.properties.BooleanProperty;
 import net.minecraft.world.level.block.state.properties.IntegerProperty;
 import net.minecraft.world.phys.BlockHitResult;
 import net.neoforged.neoforge.common.Tags;
+import net.neoforged.neoforge.energy.IEnergyStorage;
+import net.neoforged.neoforge.fluids.capability.IFluidHandler;
 import net.neoforged.neoforge.items.IItemHandler;
 
 public class JumboFurnaceBlock extends Block implements EntityBlock
 {
-	public static final IntegerProperty X = IntegerProperty.create("x", 0, 2);
-	public static final IntegerProperty Y = IntegerProperty.create("y", 0, 2);
-	public static final IntegerProperty Z = IntegerProperty.create("z", 0, 2);
 	public static final BooleanProperty LIT = BlockStateProperties.LIT;
+	
+	// createBlockStateDefinition is called from Block's constructor before our fields are assigned,
+	// so the tier of the block being constructed is kept here until then
+	private static @Nullable FurnaceTier constructingTier = null;
+	
+	private final FurnaceTier tier;
 
-	public JumboFurnaceBlock(Properties properties)
+	public JumboFurnaceBlock(FurnaceTier tier, Properties properties)
 	{
-		super(properties);
+		super(setConstructingTier(tier, properties));
+		constructingTier = null;
+		this.tier = tier;
 		this.registerDefaultState(this.stateDefinition.any()
-			.setValue(X, 0)
-			.setValue(Y, 0)
-			.setValue(Z, 0)
+			.setValue(tier.x(), 0)
+			.setValue(tier.y(), 0)
+			.setValue(tier.z(), 0)
 			.setValue(LIT, false)
 			);
 	}
+	
+	private static Properties setConstructingTier(FurnaceTier tier, Properties properties)
+	{
+		constructingTier = tier;
+		return properties;
+	}
 
 	@Override
 	protected void createBlockStateDefinition(Builder<Block, BlockState> builder)
 	{
 		super.createBlockStateDefinition(builder);
-		builder.add(X, Y, Z, LIT);
+		FurnaceTier tier = constructingTier;
+		builder.add(tier.x(), tier.y(), tier.z(), LIT);
+	}
+	
+	/**
+	 * @return The size of furnace this block is part of
+	 */
+	public FurnaceTier getTier()
+	{
+		return this.tier;
 	}
 
+	// only the core has a block entity; the exterior blocks provide the core's itemhandlers via getItemHandler
 	@Override
+	@Nullable
 	public BlockEntity newBlockEntity(BlockPos pos, BlockState state)
 	{
 		return this.isCore(state)
 			? JumboFurnace.get().jumboFurnaceCoreBlockEntityType.get().create(pos,state)
-			: JumboFurnace.get().jumboFurnaceExteriorBlockEntityType.get().create(pos,state);
+			: null;
+	}
+	
+	/**
+	 * Gets the core block entity of the furnace a jumbo furnace block belongs to
+	 * @param level The level the block is in
+	 * @param state The jumbo furnace block's state
+	 * @param pos The jumbo furnace block's position
+	 * @return The core block entity, or null if the block isn't part of a valid furnace or the core isn't loaded
+	 */
+	@Nullable
+	public static JumboFurnaceCoreBlockEntity getCore(Level level, BlockState state, BlockPos pos)
+	{
+		return state.getBlock() instanceof JumboFurnaceBlock
+			? LoadedCores.get(level, getCorePos(state, pos))
+			: null;
+	}
+	
+	/**
+	 * Capability provider for jumbo furnace blocks, granting interfacing access to the core's itemhandlers
+	 * @param level The level the block is in
+	 * @param pos The jumbo furnace block's position
+	 * @param state The jumbo furnace block's state
+	 * @param side The side the itemhandler is being accessed from
+	 * @return The input handler from above, the output handler from below, the fuel handler from the sides,
+	 * or null if the block isn't part of a valid furnace
+	 */
+	@Nullable
+	public static IItemHandler getItemHandler(Level level, BlockPos pos, BlockState state, @Nullable Direction side)
+	{
+		JumboFurnaceCoreBlockEntity core = getCore(level, state, pos);
+		if (core != null)
+		{
+			if (side == Direction.UP)
+			{
+				return core.isClusterLinked() ? core.clusterInput : core.input;
+			}
+			else if (side == Direction.DOWN)
+			{
+				return core.output;
+			}
+			else
+			{
+				return core.fuel;
+			}
+		}
+		return null;
 	}
 	
+	/**
+	 * Capability provider for jumbo furnace blocks, granting access to the core's fluid fuel tank from the sides
+	 * @param level The level the block is in
+	 * @param pos The jumbo furnace block's position
+	 * @param state The jumbo furnace block's state
+	 * @param side The side the fluidhandler is being accessed from
+	 * @return The core's fuel tank, or null if the side is vertical or the core isn't available
+	 */
+	@Nullable
+	public static IFluidHandler getFluidHandler(Level level, BlockPos pos, BlockState state, @Nullable Direction side)
+	{
+		if (side == Direction.UP || side == Direction.DOWN)
+		{
+			return null;
+		}
+		JumboFurnaceCoreBlockEntity core = getCore(level, state, pos);
+		return core == null ? null : core.fuelTank;
+	}
+	
+	/**
+	 * Capability provider for jumbo furnace blocks, granting access to the core's energy buffer from any side
+	 * @param level The level the block is in
+	 * @param pos The jumbo furnace block's position
+	 * @param state The jumbo furnace block's state
+	 * @param side The side the energy storage is being accessed from
+	 * @return The core's energy buffer, or null if energy heating is disabled or the core isn't available
+	 */
+	@Nullable
+	public static IEnergyStorage getEnergyStorage(Level level, BlockPos pos, BlockState state, @Nullable Direction side)
+	{
+		if (FurnaceEnergyStorage.getEnergyPerHeat() <= 0)
+		{
+			return null;
+		}
+		JumboFurnaceCoreBlockEntity core = getCore(level, state, pos);
+		return core == null ? null : core.energy;
+	}
 	
 	
 	@Override
@@ -90,13 +197,12 @@ public class JumboFurnaceBlock extends Block implements EntityBlock
 	@Override
 	public InteractionResult useWithoutItem(BlockState state, Level level, BlockPos pos, Player player, BlockHitResult hit)
 	{
-		BlockPos corePos = JumboFurnaceBlock.getCorePos(state, pos);
-		BlockEntity be = level.getBlockEntity(corePos);
-		if (be instanceof JumboFurnaceCoreBlockEntity core)
+		JumboFurnaceCoreBlockEntity core = getCore(level, state, pos);
+		if (core != null)
 		{
 			if (player instanceof ServerPlayer serverPlayer)
 			{
-				serverPlayer.openMenu(JumboFurnaceMenu.getServerMenuProvider(core, pos));
+				serverPlayer.openMenu(JumboFurnaceMenu.getServerMenuProvider(core, pos), buf -> JumboFurnaceMenu.writeClientData(core, buf));
 			}
 			
 			return InteractionResult.SUCCESS;
@@ -119,13 +225,11 @@ public class JumboFurnaceBlock extends Block implements EntityBlock
 				double z = pos.getZ() + 0.5D;
 				float experience = core.output.storedExperience;
 				// drop everything in the inventory slots
-				for (int i=0; i<JumboFurnaceMenu.INPUT_SLOTS; i++)
-				{
-					drops.add(core.input.getStackInSlot(i));
-					drops.add(core.fuel.getStackInSlot(i));
-					drops.add(core.output.getStackInSlot(i));
-				}
+				addStacks(drops, core.input);
+				addStacks(drops, core.fuel);
+				addStacks(drops, core.output);
 				drops.add(core.multiprocessUpgradeHandler.getStackInSlot(0));
+				drops.add(core.speedUpgradeHandler.getStackInSlot(0));
 				// drop the internal inventories too
 				for (InFlightRecipe inflight : core.inFlightRecipes)
 				{
@@ -134,7 +238,12 @@ public class JumboFurnaceBlock extends Block implements EntityBlock
 						drops.add(input);
 					}
 				}
-				for (ItemStack stack : core.backstock)
+				for (FurnaceJob job : core.getQueuedJobs())
+				{
+					drops.addAll(job.inputs());
+				}
+				drops.addAll(core.getUnqueuedJobInputs());
+				for (ItemStack stack : core.backstock.getStacks())
 				{
 					drops.add(stack);
 				}
@@ -153,37 +262,26 @@ public class JumboFurnaceBlock extends Block implements EntityBlock
 			
 			// we use the moving flag to check whether we should dismantle the rest of the furnace in the usual manner and drop blocks
 			// things that dismantle the furnace themselves (shears) should remove blocks with moving == true
-			// (block flag 64 or 1<<6 or Constants.BlockFlags.IS_MOVING)
-			if (!isMoving)
+			// (block flag 64 or 1<<6 or Block.UPDATE_MOVE_BY_PISTON)
+			// the rest of the furnace is removed all at once, with the moving flag, so the other blocks don't do this too
+			if (!isMoving && !level.isClientSide && state.hasProperty(this.tier.x()) && state.hasProperty(this.tier.y()) && state.hasProperty(this.tier.z()))
 			{
-				this.destroyNextBlockPos(level, state, pos);
+				MultiBlockHelper.removeJumboFurnace(level, this, getCorePos(state, pos), pos, true);
 			}
 
 			super.onRemove(state, level, pos, newState, isMoving);
 		}
 	}
 	
-	public void destroyNextBlockPos(Level level, BlockState state, BlockPos pos)
+	private static void addStacks(List<ItemStack> stacks, IItemHandler handler)
 	{
-		if (state.hasProperty(X) && state.hasProperty(Y) && state.hasProperty(Z))
+		int slots = handler.getSlots();
+		for (int slot=0; slot<slots; slot++)
 		{
-			int xIndex = state.getValue(X);
-			int yIndex = state.getValue(Y);
-			int zIndex = state.getValue(Z);
-			
-			int nextXIndex = (xIndex + 1) % 3;
-			int nextYIndex = (xIndex == 2) ? (yIndex + 1) % 3 : yIndex;
-			int nextZIndex = (xIndex == 2 && yIndex == 2) ? (zIndex + 1) % 3 : zIndex;
-			
-			BlockPos nextPos = pos.offset(nextXIndex - xIndex, nextYIndex - yIndex, nextZIndex - zIndex);
-			BlockState nextState = level.getBlockState(nextPos);
-			if (nextState.getBlock() == this)
-			{
-				level.destroyBlock(nextPos, true);
-			}
+			stacks.add(handler.getStackInSlot(slot));
 		}
 	}
-
+	
 	/**
 	 * Returns the assumed core position of a furnace cluster given one of its component blockstates.
 	 * Not guaranteed to return a useful position if an invalid blockstate is used.
@@ -193,35 +291,42 @@ public class JumboFurnaceBlock extends Block implements EntityBlock
 	 */
 	public static BlockPos getCorePos(BlockState exteriorState, BlockPos exteriorPos)
 	{
-		int xOff = exteriorState.hasProperty(X) ? 1 - exteriorState.getValue(X) : 0;
-		int yOff = exteriorState.hasProperty(Y) ? 1 - exteriorState.getValue(Y) : 0;
-		int zOff = exteriorState.hasProperty(Z) ? 1 - exteriorState.getValue(Z) : 0;
+		FurnaceTier tier = FurnaceTier.of(exteriorState);
+		int radius = tier.radius();
+		int xOff = exteriorState.hasProperty(tier.x()) ? radius - exteriorState.getValue(tier.x()) : 0;
+		int yOff = exteriorState.hasProperty(tier.y()) ? radius - exteriorState.getValue(tier.y()) : 0;
+		int zOff = exteriorState.hasProperty(tier.z()) ? radius - exteriorState.getValue(tier.z()) : 0;
 		return exteriorPos.offset(xOff, yOff, zOff);
 	}
 
 	public boolean isCore(BlockState state)
 	{
-		return state.hasProperty(X) && state.hasProperty(Y) && state.hasProperty(Z)
-			&& state.getValue(X) == 1
-			&& state.getValue(Y) == 1
-			&& state.getValue(Z) == 1;
+		FurnaceTier tier = this.tier;
+		int radius = tier.radius();
+		return state.hasProperty(tier.x()) && state.hasProperty(tier.y()) && state.hasProperty(tier.z())
+			&& state.getValue(tier.x()) == radius
+			&& state.getValue(tier.y()) == radius
+			&& state.getValue(tier.z()) == radius;
 	}
 	
 	public List<Pair<BlockPos, BlockState>> getStatesForFurnace(BlockPos corePos)
 	{
-		List<Pair<BlockPos, BlockState>> pairs = new ArrayList<>(27);
+		FurnaceTier tier = this.tier;
+		int radius = tier.radius();
+		int size = tier.size();
+		List<Pair<BlockPos, BlockState>> pairs = new ArrayList<>(tier.volume());
 		
-		for (int x=0; x<3; x++)
+		for (int x=0; x<size; x++)
 		{
-			for (int y=0; y<3; y++)
+			for (int y=0; y<size; y++)
 			{
-				for (int z=0; z<3; z++)
+				for (int z=0; z<size; z++)
 				{
 					BlockState state = this.defaultBlockState()
-						.setValue(X, x)
-						.setValue(Y, y)
-						.setValue(Z, z);
-					BlockPos pos = corePos.offset(x-1, y-1, z-1);
+						.setValue(tier.x(), x)
+						.setValue(tier.y(), y)
+						.setValue(tier.z(), z);
+					BlockPos pos = corePos.offset(x-radius, y-radius, z-radius);
 					pairs.add(Pair.of(pos, state));
 				}
 			}
@@ -261,28 +366,31 @@ public class JumboFurnaceBlock extends Block implements EntityBlock
 	@Nullable
 	public Direction getSmelterHoleDirection(BlockState state)
 	{
-		if (!state.hasProperty(X) || !state.hasProperty(Y) || !state.hasProperty(Z))
+		FurnaceTier tier = this.tier;
+		if (!state.hasProperty(tier.x()) || !state.hasProperty(tier.y()) || !state.hasProperty(tier.z()))
 			return null;
 		
-		int y = state.getValue(Y);
-		if (y != 1)
+		int radius = tier.radius();
+		int y = state.getValue(tier.y());
+		if (y != radius)
 			return null;
 		
-		int x = state.getValue(X);
-		int z = state.getValue(Z);
-		if (x == 1 && z == 0)
+		int max = tier.size() - 1;
+		int x = state.getValue(tier.x());
+		int z = state.getValue(tier.z());
+		if (x == radius && z == 0)
 		{
 			return Direction.NORTH;
 		}
-		else if (x == 1 && z == 2)
+		else if (x == radius && z == max)
 		{
 			return Direction.SOUTH;
 		}
-		else if (x == 0 && z == 1)
+		else if (x == 0 && z == radius)
 		{
 			return Direction.WEST;
 		}
-		else if (x == 2 && z == 1)
+		else if (x == max && z == radius)
 		{
 			return Direction.EAST;
 		}
@@ -303,26 +411,30 @@ public class JumboFurnaceBlock extends Block implements EntityBlock
 	@Deprecated
 	public int getAnalogOutputSignal(BlockState state, Level level, BlockPos pos)
 	{
-		BlockPos corePos = getCorePos(state, pos);
-		BlockEntity be = level.getBlockEntity(corePos);
-		if (!(be instanceof JumboFurnaceCoreBlockEntity core) || !state.hasProperty(Y))
+		JumboFurnaceCoreBlockEntity core = getCore(level, state, pos);
+		if (core == null || !state.hasProperty(this.tier.y()))
 		{
 			// if we are in an invalid state, return 0
 			return 0;
 		}
 		
-		int y = state.getValue(Y);
+		int y = state.getValue(this.tier.y());
 
 		// top layer of blocks: comparator output is input inventory
-		// middle layer of blocks: comparator output is fuel inventory
+		// middle layers of blocks: comparator output is fuel inventory
 		// bottom layer of blocks: comparator output is output inventory
 		
-		switch(y)
+		if (y == 0)
+		{
+			return calcRedstoneFromItemHandler(core.output);
+		}
+		else if (y == this.tier.size() - 1)
+		{
+			return calcRedstoneFromItemHandler(core.input);
+		}
+		else
 		{
-			case 0: return calcRedstoneFromItemHandler(core.output);
-			case 1: return calcRedstoneFromItemHandler(core.fuel);
-			case 2: return calcRedstoneFromItemHandler(core.input);
-			default: return 0;
+			return calcRedstoneFromItemHandler(core.fuel);
 		}
 	}
 	
@@ -338,7 +450,10 @@ public class JumboFurnaceBlock extends Block implements EntityBlock
 			ItemStack itemstack = handler.getStackInSlot(slot);
 			if (!itemstack.isEmpty())
 			{
-				totalItemValue += itemstack.getCount() / (float) Math.min(handler.getSlotLimit(slot), itemstack.getMaxStackSize());
+				int limit = handler instanceof BufferedItemStackHandler buffered
+					? buffered.getCapacityFor(slot, itemstack)
+					: Math.min(handler.getSlotLimit(slot), itemstack.getMaxStackSize());
+				totalItemValue += Math.min(1F, itemstack.getCount() / (float) limit);
 				++nonEmptySlots;
 			}
 		}
@@ -355,20 +470,23 @@ public class JumboFurnaceBlock extends Block implements EntityBlock
 	@Override
 	public BlockState rotate(BlockState state, Rotation rot)
 	{
-		if (state.hasProperty(X) && state.hasProperty(Z))
+		IntegerProperty xProperty = this.tier.x();
+		IntegerProperty zProperty = this.tier.z();
+		if (state.hasProperty(xProperty) && state.hasProperty(zProperty))
 		{
-			int x = state.getValue(X);
-			int z = state.getValue(Z);
+			int x = state.getValue(xProperty);
+			int z = state.getValue(zProperty);
+			int max = this.tier.size() - 1;
 			switch(rot)
 			{
 				case NONE:
 					return state;
 				case CLOCKWISE_90:
-					return state.setValue(X, 2-z).setValue(Z, x);
+					return state.setValue(xProperty, max-z).setValue(zProperty, x);
 				case CLOCKWISE_180:
-					return state.setValue(X, 2-x).setValue(Z, 2-z);
+					return state.setValue(xProperty, max-x).setValue(zProperty, max-z);
 				case COUNTERCLOCKWISE_90:
-					return state.setValue(X, z).setValue(Z, 2-x);
+					return state.setValue(xProperty, z).setValue(zProperty, max-x);
 				default:
 					return state;
 			}
@@ -387,16 +505,19 @@ public class JumboFurnaceBlock extends Block implements EntityBlock
 	@Override
 	public BlockState mirror(BlockState state, Mirror mirror)
 	{
-		if (state.hasProperty(X) && state.hasProperty(Z))
+		IntegerProperty xProperty = this.tier.x();
+		IntegerProperty zProperty = this.tier.z();
+		if (state.hasProperty(xProperty) && state.hasProperty(zProperty))
 		{
+			int max = this.tier.size() - 1;
 			switch(mirror)
 			{
 				case NONE:
 					return state;
 				case LEFT_RIGHT: // mirror across the x-axis (flip Z)
-					return state.setValue(Z, 2 - state.getValue(Z));
+					return state.setValue(zProperty, max - state.getValue(zProperty));
 				case FRONT_BACK: // mirror across the z-axis (flip X)
-					return state.setValue(X, 2 - state.getValue(X));
+					return state.setValue(xProperty, max - state.getValue(xProperty));
 				default:
 					return state;
 			}
@@ -1,32 +1,56 @@
 package net.commoble.jumbofurnace.jumbo_furnace;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
 
 import com.google.common.collect.Lists;
+import com.mojang.datafixers.util.Either;
 import com.mojang.serialization.Codec;
 
+import it.unimi.dsi.fastutil.ints.IntArrayFIFOQueue;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
 import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import net.commoble.jumbofurnace.JumboFurnace;
 import net.commoble.jumbofurnace.JumboFurnaceUtils;
+import net.commoble.jumbofurnace.config.ServerConfig;
 import net.commoble.jumbofurnace.recipes.InFlightRecipe;
+import net.commoble.jumbofurnace.recipes.JumboFurnaceRecipe;
+import net.commoble.jumbofurnace.recipes.RecipeLock;
 import net.commoble.jumbofurnace.recipes.RecipeSorter;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.NbtOps;
+import net.minecraft.nbt.Tag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.Containers;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraft.world.item.crafting.RecipeManager;
+import net.minecraft.world.item.crafting.SmeltingRecipe;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.entity.BlockEntityTicker;
 import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.phys.Vec3;
+import net.neoforged.neoforge.capabilities.BlockCapabilityCache;
+import net.neoforged.neoforge.capabilities.Capabilities;
 import net.neoforged.neoforge.common.crafting.SizedIngredient;
 import net.neoforged.neoforge.items.IItemHandler;
-import net.neoforged.neoforge.items.ItemHandlerHelper;
 import net.neoforged.neoforge.items.ItemStackHandler;
 
 public class JumboFurnaceCoreBlockEntity extends BlockEntity
@@ -35,33 +59,108 @@ public class JumboFurnaceCoreBlockEntity extends BlockEntity
 	public static final String FUEL = "fuel";
 	public static final String OUTPUT = "output";
 	public static final String MULTIPROCESS_UPGRADES = "multiprocess_upgrades";
+	public static final String SPEED_UPGRADES = "speed_upgrades";
+	public static final String FUEL_TANK = "fuel_tank";
+	public static final String ENERGY = "energy";
 	public static final String BURN_TIME = "burn_time";
 	public static final String BURN_VALUE = "burn_value";
+	public static final String ANCHOR_TIME = "anchor_time";
+	public static final String FORMAT = "format";
 	public static final String RECIPES = "recipes";
 	public static final String BACKSTOCK = "backstock";
+	public static final String EJECT = "eject";
+	public static final String PULL = "pull";
+	public static final String LOCKED_RECIPE = "locked_recipe";
+	public static final String JOB_INPUTS = "job_inputs";
+	public static final String SCHEDULING = "scheduling";
+	public static final String CLUSTER_LINKED = "cluster_linked";
+	/** Maximum ticks to wait between attempts to eject output into an inventory that won't accept it **/
+	public static final int MAX_EJECT_BACKOFF = 160;
+	/** Maximum ticks to wait between attempts to pull inputs from an inventory that has none for us **/
+	public static final int MAX_PULL_BACKOFF = 160;
+	// markers for the job input assignment search
+	private static final int UNVISITED = -2;
+	private static final int START = -1;
 	public static final BlockEntityTicker<JumboFurnaceCoreBlockEntity> SERVER_TICKER = (level,pos,state,core)->core.serverTick();
 	
 	public static final Codec<List<InFlightRecipe>> INFLIGHT_RECIPES_CODEC = InFlightRecipe.CODEC.listOf();
+	public static final Codec<List<InFlightRecipe>> LEGACY_INFLIGHT_RECIPES_CODEC = InFlightRecipe.LEGACY_CODEC.listOf();
 	public static final Codec<List<ItemStack>> BACKSTOCK_CODEC = ItemStack.CODEC.listOf();
 	
-	public final InputItemHandler input = new InputItemHandler(this);
-	public final ItemStackHandler fuel = new FuelItemHandler(this);
-	public final OutputItemHandler output = new OutputItemHandler(this);
+	// the block never changes while we exist, so our size is known before our inventories are made
+	private final FurnaceTier tier = FurnaceTier.of(this.getBlockState());
+	public final InputItemHandler input = new InputItemHandler(this, this.tier.slots());
+	public final ItemStackHandler fuel = new FuelItemHandler(this, this.tier.slots());
+	public final OutputItemHandler output = new OutputItemHandler(this, this.tier.slots());
 	public final MultiprocessUpgradeHandler multiprocessUpgradeHandler = new MultiprocessUpgradeHandler(this);
+	public final SpeedUpgradeHandler speedUpgradeHandler = new SpeedUpgradeHandler(this);
+	public final FluidFuelTank fuelTank = new FluidFuelTank(this);
+	public final FurnaceEnergyStorage energy = new FurnaceEnergyStorage(this);
+	public final ClusterInputHandler clusterInput = new ClusterInputHandler(this);
 
 	public List<InFlightRecipe> inFlightRecipes = new ArrayList<>();
-	public List<ItemStack> backstock = new ArrayList<>();
+	// jobs submitted by other mods that haven't started yet, in the order they were submitted
+	private final Deque<FurnaceJob> jobQueue = new ArrayDeque<>();
+	// inputs of jobs that were queued when we were saved, to be given back through the input on our first tick
+	private List<ItemStack> unqueuedJobInputs = List.of();
+	public final Backstock backstock = new Backstock();
 	
 	/**
 	 * cached copy of output slots and inflight recipe results, tossed on relevant updates
 	 */
 	public IItemHandler outputSimulatorCache = null;
 	
+	// heat remaining as of the anchor time; use getBurnTimeRemaining for the current value
 	public int burnTimeRemaining = 0;
 	public int lastItemBurnedValue = 200;
+	// game time at which burnTimeRemaining and the inflight recipes' start ticks were last brought up to date
+	public long anchorTime = 0L;
+	// whether we loaded from a save with no anchor time, so the anchor and start ticks are relative to 0 until we know the load time
+	private boolean needsAnchorOnLoad = false;
+	// game time of the next tick we need to do anything in, MIN_VALUE if it needs to be recalculated
+	private long nextEventTime = Long.MIN_VALUE;
+	// side of the furnace to push output items out of, or null if we don't push output
+	private @Nullable Direction ejectDirection = null;
+	private @Nullable BlockCapabilityCache<IItemHandler, Direction> ejectTarget = null;
+	// whether we may have output to push, and when we should next try to push it
+	private boolean ejectPending = true;
+	private long nextEjectTime = Long.MIN_VALUE;
+	private int ejectBackoff = 0;
+	// side of the furnace to pull inputs in from, or null if we don't pull inputs
+	private @Nullable Direction pullDirection = null;
+	private @Nullable BlockCapabilityCache<IItemHandler, Direction> pullSource = null;
+	// whether we have room for recipes that we don't have the inputs for, and when we should next try to pull more
+	private boolean pullPending = false;
+	private long nextPullTime = Long.MIN_VALUE;
+	private int pullBackoff = 0;
+	// the only recipe we're allowed to start, or null if we can start any recipe
+	private @Nullable RecipeLock recipeLock = null;
+	// which recipes we start and heat first; inflight recipes are kept sorted by this
+	private SchedulingPolicy schedulingPolicy = SchedulingPolicy.FIFO;
+	// whether we share our input with the linked furnaces next to us
+	private boolean clusterLinked = false;
+	// the most recently completed recipe, which we can lock to if nothing is cooking (not saved)
+	private @Nullable JumboFurnaceRecipe lastCompletedRecipe = null;
+	// while nonzero, setChanged is deferred until the outermost bulk transfer ends
+	private int bulkTransferDepth = 0;
+	private boolean changedDuringBulkTransfer = false;
+	// incremented when inflight recipes start, complete, or stop or resume progressing, so open menus know when to sync them
+	private int progressRevision = 0;
 	 // check inventory on the first tick in case the furnace somehow comes into existence with stuff already in it
 	public boolean shouldCheckRecipes = true;
 	
+	// serialized copies of each section of our saved data, discarded when that section changes,
+	// so that saving a furnace whose inventories haven't changed doesn't have to reserialize them
+	// (these are shared with the tags we save to and must never be modified after creation)
+	private @Nullable Tag cachedInputTag = null;
+	private @Nullable Tag cachedFuelTag = null;
+	private @Nullable Tag cachedFuelTankTag = null;
+	private @Nullable Tag cachedOutputTag = null;
+	private @Nullable Tag cachedUpgradesTag = null;
+	private @Nullable Tag cachedSpeedUpgradesTag = null;
+	private @Nullable Tag cachedRecipesTag = null;
+	private @Nullable Tag cachedBackstockTag = null;
+	
 	public static JumboFurnaceCoreBlockEntity create(BlockPos pos, BlockState state)
 	{
 		return new JumboFurnaceCoreBlockEntity(JumboFurnace.get().jumboFurnaceCoreBlockEntityType.get(), pos, state);
@@ -71,6 +170,35 @@ public class JumboFurnaceCoreBlockEntity extends BlockEntity
 	{
 		super(type, pos, state);
 	}
+	
+	@Override
+	public void onLoad()
+	{
+		super.onLoad();
+		this.anchorLegacySave();
+		LoadedCores.add(this);
+	}
+	
+	// saves from before anchored times didn't have an anchor, treat them as being anchored to the time they loaded at
+	private void anchorLegacySave()
+	{
+		if (!this.needsAnchorOnLoad || this.level == null)
+			return;
+		
+		this.needsAnchorOnLoad = false;
+		long gameTime = this.level.getGameTime();
+		this.anchorTime += gameTime;
+		this.inFlightRecipes.forEach(recipe -> recipe.delay(gameTime));
+		this.nextEventTime = Long.MIN_VALUE;
+		this.cachedRecipesTag = null;
+	}
+	
+	@Override
+	public void setRemoved()
+	{
+		super.setRemoved();
+		LoadedCores.remove(this);
+	}
 
 	@Override
 	public void loadAdditional(CompoundTag compound, HolderLookup.Provider registries)
@@ -80,73 +208,1070 @@ public class JumboFurnaceCoreBlockEntity extends BlockEntity
 		this.fuel.deserializeNBT(registries, compound.getCompound(FUEL));
 		this.output.deserializeNBT(registries, compound.getCompound(OUTPUT));
 		this.multiprocessUpgradeHandler.deserializeNBT(registries, compound.getCompound(MULTIPROCESS_UPGRADES));
-		this.inFlightRecipes = Lists.newArrayList(INFLIGHT_RECIPES_CODEC.parse(NbtOps.INSTANCE, compound.getCompound(RECIPES)).result().orElse(List.of()));
-		this.backstock = Lists.newArrayList(BACKSTOCK_CODEC.parse(NbtOps.INSTANCE, compound.getCompound(BACKSTOCK)).result().orElse(List.of()));
+		this.speedUpgradeHandler.deserializeNBT(registries, compound.getCompound(SPEED_UPGRADES));
+		this.fuelTank.readFromNBT(registries, compound.getCompound(FUEL_TANK));
+		this.energy.setEnergy(compound.getInt(ENERGY));
+		if (compound.getInt(FORMAT) >= SaveDataHelper.FORMAT_VERSION)
+		{
+			this.inFlightRecipes = SaveDataHelper.readInFlightRecipes(compound.getCompound(RECIPES), registries);
+			this.backstock.clear();
+			SaveDataHelper.readStacks(compound.getCompound(BACKSTOCK), registries).forEach(this.backstock::add);
+		}
+		else
+		{
+			// older saves used codecs for these
+			// (saves from before anchored times stored progress instead of start ticks, and no anchor time)
+			this.inFlightRecipes = readList(compound.contains(ANCHOR_TIME) ? INFLIGHT_RECIPES_CODEC : LEGACY_INFLIGHT_RECIPES_CODEC, compound, RECIPES, registries);
+			this.backstock.clear();
+			readList(BACKSTOCK_CODEC, compound, BACKSTOCK, registries).forEach(this.backstock::add);
+		}
+		this.schedulingPolicy = compound.contains(SCHEDULING)
+			? SchedulingPolicy.CODEC.byName(compound.getString(SCHEDULING), SchedulingPolicy.FIFO)
+			: SchedulingPolicy.FIFO;
+		this.inFlightRecipes.sort(this.schedulingPolicy.heatingOrder());
+		boolean wasClusterLinked = this.clusterLinked;
+		this.clusterLinked = compound.getBoolean(CLUSTER_LINKED);
+		if (wasClusterLinked != this.clusterLinked)
+		{
+			LoadedCores.onClusterLinkChanged(this);
+		}
 		this.burnTimeRemaining = compound.getInt(BURN_TIME);
 		this.lastItemBurnedValue = compound.getInt(BURN_VALUE);
+		this.anchorTime = compound.getLong(ANCHOR_TIME);
+		this.needsAnchorOnLoad = !compound.contains(ANCHOR_TIME);
+		this.anchorLegacySave(); // if we're already in a level; otherwise we do this when we're added to one
+		this.ejectDirection = compound.contains(EJECT) ? Direction.byName(compound.getString(EJECT)) : null;
+		this.ejectTarget = null;
+		this.ejectPending = true;
+		this.pullDirection = compound.contains(PULL) ? Direction.byName(compound.getString(PULL)) : null;
+		this.pullSource = null;
+		this.pullPending = true;
+		// queued jobs aren't saved, but their inputs are; we give them back through the input when we next tick
+		this.jobQueue.clear();
+		this.unqueuedJobInputs = compound.contains(JOB_INPUTS)
+			? SaveDataHelper.readStacks(compound.getCompound(JOB_INPUTS), registries)
+			: List.of();
+		this.recipeLock = compound.contains(LOCKED_RECIPE)
+			? JumboFurnaceRecipe.CODEC.codec().parse(registries.createSerializationContext(NbtOps.INSTANCE), compound.get(LOCKED_RECIPE))
+				.result()
+				.map(RecipeLock::of)
+				.orElse(null)
+			: null;
+		this.nextEventTime = Long.MIN_VALUE;
+		this.clearCachedTags();
+	}
+	
+	private static <T> List<T> readList(Codec<List<T>> codec, CompoundTag compound, String key, HolderLookup.Provider registries)
+	{
+		Tag tag = compound.get(key);
+		// keep whatever elements we can read if some of them can't be
+		return tag == null
+			? new ArrayList<>()
+			: Lists.newArrayList(codec.parse(registries.createSerializationContext(NbtOps.INSTANCE), tag).resultOrPartial().orElse(List.of()));
 	}
 
 	@Override
 	public void saveAdditional(CompoundTag compound, HolderLookup.Provider registries)
 	{
 		super.saveAdditional(compound, registries);
-		compound.put(INPUT, this.input.serializeNBT(registries));
-		compound.put(FUEL, this.fuel.serializeNBT(registries));
-		compound.put(OUTPUT, this.output.serializeNBT(registries));
-		compound.put(MULTIPROCESS_UPGRADES, this.multiprocessUpgradeHandler.serializeNBT(registries));
-		INFLIGHT_RECIPES_CODEC.encodeStart(NbtOps.INSTANCE, this.inFlightRecipes).ifSuccess(tag -> compound.put(RECIPES, tag));
-		BACKSTOCK_CODEC.encodeStart(NbtOps.INSTANCE, this.backstock).ifSuccess(tag -> compound.put(BACKSTOCK, tag));
+		// only reserialize the sections that have changed since we last saved
+		if (this.cachedInputTag == null)
+			this.cachedInputTag = this.input.serializeNBT(registries);
+		if (this.cachedFuelTag == null)
+			this.cachedFuelTag = this.fuel.serializeNBT(registries);
+		if (this.cachedFuelTankTag == null)
+			this.cachedFuelTankTag = this.fuelTank.writeToNBT(registries, new CompoundTag());
+		if (this.cachedOutputTag == null)
+			this.cachedOutputTag = this.output.serializeNBT(registries);
+		if (this.cachedUpgradesTag == null)
+			this.cachedUpgradesTag = this.multiprocessUpgradeHandler.serializeNBT(registries);
+		if (this.cachedSpeedUpgradesTag == null)
+			this.cachedSpeedUpgradesTag = this.speedUpgradeHandler.serializeNBT(registries);
+		if (this.cachedRecipesTag == null)
+			this.cachedRecipesTag = SaveDataHelper.writeInFlightRecipes(this.inFlightRecipes, registries);
+		if (this.cachedBackstockTag == null)
+			this.cachedBackstockTag = SaveDataHelper.writeStacks(this.backstock.getEntries(), registries);
+		
+		compound.putInt(FORMAT, SaveDataHelper.FORMAT_VERSION);
+		compound.put(INPUT, this.cachedInputTag);
+		compound.put(FUEL, this.cachedFuelTag);
+		compound.put(FUEL_TANK, this.cachedFuelTankTag);
+		compound.putInt(ENERGY, this.energy.getEnergyStored());
+		compound.put(OUTPUT, this.cachedOutputTag);
+		compound.put(MULTIPROCESS_UPGRADES, this.cachedUpgradesTag);
+		compound.put(SPEED_UPGRADES, this.cachedSpeedUpgradesTag);
+		compound.put(RECIPES, this.cachedRecipesTag);
+		compound.put(BACKSTOCK, this.cachedBackstockTag);
 		compound.putInt(BURN_TIME, this.burnTimeRemaining);
 		compound.putInt(BURN_VALUE, this.lastItemBurnedValue);
+		compound.putLong(ANCHOR_TIME, this.anchorTime);
+		if (this.ejectDirection != null)
+		{
+			compound.putString(EJECT, this.ejectDirection.getSerializedName());
+		}
+		if (this.pullDirection != null)
+		{
+			compound.putString(PULL, this.pullDirection.getSerializedName());
+		}
+		if (this.clusterLinked)
+		{
+			compound.putBoolean(CLUSTER_LINKED, true);
+		}
+		if (this.schedulingPolicy != SchedulingPolicy.FIFO)
+		{
+			compound.putString(SCHEDULING, this.schedulingPolicy.getSerializedName());
+		}
+		if (!this.jobQueue.isEmpty() || !this.unqueuedJobInputs.isEmpty())
+		{
+			List<ItemStack> jobInputs = new ArrayList<>(this.unqueuedJobInputs);
+			for (FurnaceJob job : this.jobQueue)
+			{
+				jobInputs.addAll(job.inputs());
+			}
+			compound.put(JOB_INPUTS, SaveDataHelper.writeStacks(jobInputs, registries));
+		}
+		if (this.recipeLock != null)
+		{
+			JumboFurnaceRecipe.CODEC.codec().encodeStart(registries.createSerializationContext(NbtOps.INSTANCE), this.recipeLock.recipe())
+				.result()
+				.ifPresent(tag -> compound.put(LOCKED_RECIPE, tag));
+		}
 	}
 	
+	private void clearCachedTags()
+	{
+		this.cachedInputTag = null;
+		this.cachedFuelTag = null;
+		this.cachedFuelTankTag = null;
+		this.cachedOutputTag = null;
+		this.cachedUpgradesTag = null;
+		this.cachedSpeedUpgradesTag = null;
+		this.cachedRecipesTag = null;
+		this.cachedBackstockTag = null;
+	}
+	
+	/**
+	 * @return Whether we had heat as of the anchor time. Heat never runs out between anchors, so this is also whether we have heat now.
+	 */
 	public boolean isBurning()
 	{
 		return this.burnTimeRemaining > 0;
 	}
 	
+	/**
+	 * @return The heat remaining as of the current game time
+	 */
+	public int getBurnTimeRemaining()
+	{
+		if (this.burnTimeRemaining <= 0 || this.level == null)
+		{
+			return this.burnTimeRemaining;
+		}
+		long elapsed = Math.max(0L, this.level.getGameTime() - this.anchorTime);
+		long runningTicks = Math.min(elapsed, this.getNextEventTime() - this.anchorTime - 1);
+		return this.burnTimeRemaining - (int)(runningTicks * this.getHeatPerTick());
+	}
+	
 	public void updateBurningBlockstates(boolean burning)
 	{
 		for (Direction direction : Direction.Plane.HORIZONTAL)
 		{
-			BlockPos adjacentPos = this.worldPosition.relative(direction);
-			BlockState state = this.level.getBlockState(adjacentPos);
+			// the blocks with the smelter holes are in the middle of each side
+			BlockPos holePos = this.worldPosition.relative(direction, this.tier.radius());
+			BlockState state = this.level.getBlockState(holePos);
 			if (state.getBlock() instanceof JumboFurnaceBlock)
 			{
-				this.level.setBlockAndUpdate(adjacentPos, state.setValue(JumboFurnaceBlock.LIT, burning));
+				this.level.setBlockAndUpdate(holePos, state.setValue(JumboFurnaceBlock.LIT, burning));
 			}
 		}
 	}
 	
 	public void markFuelInventoryChanged()
 	{
+		this.cachedFuelTag = null;
+		this.shouldCheckRecipes = true;
+		this.setChanged();
+	}
+	
+	public void markFuelTankChanged()
+	{
+		this.cachedFuelTankTag = null;
 		this.shouldCheckRecipes = true;
 		this.setChanged();
 	}
 	
+	/**
+	 * Called when the energy buffer's contents change
+	 * @param checkRecipes Whether the furnace should look for recipes to start again
+	 */
+	public void markEnergyChanged(boolean checkRecipes)
+	{
+		if (checkRecipes)
+		{
+			this.shouldCheckRecipes = true;
+		}
+		this.setChanged();
+	}
+	
 	public void markInputInventoryChanged()
 	{
+		this.cachedInputTag = null;
 		this.shouldCheckRecipes = true;
 		this.setChanged();
 	}
 	
 	public void markOutputInventoryChanged()
 	{
+		this.cachedOutputTag = null;
 		this.outputSimulatorCache = null;
 		this.shouldCheckRecipes = true;
+		this.ejectPending = true;
+		this.setChanged();
+	}
+	
+	public void markUpgradeInventoryChanged()
+	{
+		this.cachedUpgradesTag = null;
+		this.cachedSpeedUpgradesTag = null;
+		this.shouldCheckRecipes = true;
+		this.setChanged();
+	}
+	
+	/**
+	 * Called when the output's stored experience changes.
+	 * Experience only changes alongside recipe completion or output extraction, which mark the furnace as changed themselves.
+	 */
+	public void markOutputExperienceChanged()
+	{
+		this.cachedOutputTag = null;
+	}
+	
+	/**
+	 * Called when the inflight recipe list or the progress of any inflight recipes change
+	 */
+	public void markInFlightRecipesChanged()
+	{
+		this.cachedRecipesTag = null;
+		this.nextEventTime = Long.MIN_VALUE;
+		this.progressRevision++;
+	}
+	
+	/**
+	 * Adds a recipe to the inflight recipes, keeping them in the scheduling policy's heating order
+	 * @param recipe The recipe to add
+	 */
+	private void addInFlightRecipe(InFlightRecipe recipe)
+	{
+		// binary search for the first recipe that should be heated after the new one
+		Comparator<InFlightRecipe> order = this.schedulingPolicy.heatingOrder();
+		int low = 0;
+		int high = this.inFlightRecipes.size();
+		while (low < high)
+		{
+			int mid = (low + high) >>> 1;
+			if (order.compare(this.inFlightRecipes.get(mid), recipe) <= 0)
+			{
+				low = mid + 1;
+			}
+			else
+			{
+				high = mid;
+			}
+		}
+		this.inFlightRecipes.add(low, recipe);
+		this.markInFlightRecipesChanged();
+	}
+	
+	/**
+	 * @return Whether we share our input with the linked furnaces next to us
+	 */
+	public boolean isClusterLinked()
+	{
+		return this.clusterLinked;
+	}
+	
+	/**
+	 * Links the furnace into a cluster with the linked furnaces whose sides touch it, or unlinks it.
+	 * Items inserted into the top of any furnace in a cluster go to whichever member has the most room for new recipes.
+	 * @param linked Whether to link the furnace
+	 */
+	public void setClusterLinked(boolean linked)
+	{
+		if (this.clusterLinked != linked)
+		{
+			this.clusterLinked = linked;
+			LoadedCores.onClusterLinkChanged(this);
+			this.setChanged();
+		}
+	}
+	
+	/**
+	 * @return The policy deciding which recipes we start and heat first
+	 */
+	public SchedulingPolicy getSchedulingPolicy()
+	{
+		return this.schedulingPolicy;
+	}
+	
+	/**
+	 * @param policy The policy deciding which recipes we start and heat first
+	 */
+	public void setSchedulingPolicy(SchedulingPolicy policy)
+	{
+		this.schedulingPolicy = policy;
+		this.inFlightRecipes.sort(policy.heatingOrder());
+		this.markInFlightRecipesChanged();
+		this.shouldCheckRecipes = true;
+		this.setChanged();
+	}
+	
+	/**
+	 * Switches to the next scheduling policy
+	 */
+	public void cycleSchedulingPolicy()
+	{
+		this.setSchedulingPolicy(this.schedulingPolicy.next());
+	}
+	
+	public int getProgressRevision()
+	{
+		return this.progressRevision;
+	}
+	
+	public void markBackstockChanged()
+	{
+		this.cachedBackstockTag = null;
+	}
+	
+	/**
+	 * @return The size of furnace we're the core of
+	 */
+	public FurnaceTier getTier()
+	{
+		return this.tier;
+	}
+	
+	public int getMaxSimultaneousRecipes()
+	{
+		ItemStack upgrades = this.multiprocessUpgradeHandler.getStackInSlot(0);
+		long parallelism = upgrades.isEmpty() ? 0L : (long)upgrades.getCount() * MultiprocessUpgrade.getParallelism(upgrades);
+		return (int)Math.min(Integer.MAX_VALUE, (1L + parallelism) * this.tier.recipeMultiplier());
+	}
+	
+	/**
+	 * @return The multiplier to the speed that recipes cook at, from the speed upgrade slot
+	 */
+	public double getSpeedMultiplier()
+	{
+		return SpeedUpgrade.getSpeedMultiplier(this.speedUpgradeHandler.getStackInSlot(0));
+	}
+	
+	/**
+	 * @return The number of crafts in all inflight recipe batches, each of which takes up a recipe slot
+	 */
+	public int getInFlightCraftCount()
+	{
+		int crafts = 0;
+		for (InFlightRecipe recipe : this.inFlightRecipes)
+		{
+			crafts += recipe.count();
+		}
+		return crafts;
+	}
+	
+	/**
+	 * @return The number of stackable items each input and output slot can hold, or 0 if they hold ordinary stacks
+	 */
+	public static int getBufferSlotCapacity()
+	{
+		return JumboFurnace.get().serverConfig.bufferSlotCapacity().get();
+	}
+	
+	/**
+	 * Gives back the inputs of jobs that were queued when we were saved.
+	 * These were never cooked, so they go into our input like any other inputs,
+	 * and whatever doesn't fit is dropped above us the same as when the furnace is broken.
+	 */
+	private void returnUnqueuedJobInputs()
+	{
+		List<ItemStack> jobInputs = this.unqueuedJobInputs;
+		this.unqueuedJobInputs = List.of();
+		this.bulkTransfer(() -> {
+			Vec3 dropPos = Vec3.atCenterOf(this.worldPosition.above(this.tier.radius() + 1));
+			for (ItemStack stack : jobInputs)
+			{
+				ItemStack leftover = JumboFurnaceUtils.insertItemStacked(this.input, stack.copy(), false);
+				if (!leftover.isEmpty())
+				{
+					Containers.dropItemStack(this.level, dropPos.x, dropPos.y, dropPos.z, leftover);
+				}
+			}
+			return true;
+		});
+		this.setChanged();
+	}
+	
+	/**
+	 * @return true if we're keeping enough backstock that we shouldn't start any more recipes
+	 */
+	public boolean isBackstockFull()
+	{
+		return this.backstock.getTotalCount() >= JumboFurnace.get().serverConfig.maxBackstock().get();
+	}
+	
+	protected void serverTick()
+	{
+		long gameTime = this.level.getGameTime();
+		
+		if (!this.unqueuedJobInputs.isEmpty())
+		{
+			this.returnUnqueuedJobInputs();
+		}
+		
+		// push output into the inventory next to us if we're set to
+		// (at most once per tick, and less often while that inventory is full)
+		if (this.ejectDirection != null && this.ejectPending && gameTime >= this.nextEjectTime)
+		{
+			this.tryEject(gameTime);
+		}
+		
+		// likewise, pull inputs from the inventory next to us if we're set to and we have room for recipes we don't have inputs for
+		if (this.pullDirection != null && this.pullPending && gameTime >= this.nextPullTime)
+		{
+			this.tryPull(gameTime);
+		}
+		
+		// heat and recipe progress aren't counted every tick;
+		// instead, we remember how much heat we had at the anchor time, and when each recipe would have started if it had always been heated,
+		// and derive the current values from the game time.
+		// this stays accurate until something discrete happens (a recipe completes, heat runs out, or an inventory changes)
+		// so we have nothing to do until then
+		if (!this.shouldCheckRecipes && gameTime < this.getNextEventTime())
+		{
+			return;
+		}
+		
+		// inventory changes made during the tick only need to notify neighbors once
+		this.beginBulkTransfer();
+		try
+		{
+			this.tickEvents(gameTime);
+		}
+		finally
+		{
+			this.endBulkTransfer();
+		}
+		
+		
+//		// if burning, decrement burn time
+//		boolean dirty = false;
+//		boolean wasBurningBeforeTick = this.isBurning();
+//		if (wasBurningBeforeTick)
+//		{
+//			this.burnTimeRemaining -= this.getBurnConsumption();
+//			dirty = true;
+//		}
+//		// reinform self of own state if inventories have changed
+//		if (this.needsRecipeUpdate)
+//		{
+//			this.updateRecipes();
+//		}
+//		if (this.needsOutputUpdate)
+//		{
+//			this.updateOutput();
+//		}
+//		if (this.needsFuelUpdate)
+//		{
+//			this.updateFuel();
+//		}
+//		
+//		boolean hasSmeltableInputs = this.cachedRecipes.getRecipeCount() > 0;
+//		
+//		// if burning, or if it can consume fuel and has a smeltable input
+//		if (this.isBurning() || (this.canConsumeFuel && hasSmeltableInputs))
+//		{
+//			// if not burning but can start cooking
+//			// this also implies that we can consume fuel
+//			if (!this.isBurning() && hasSmeltableInputs)
+//			{
+//				// consume fuel and start burning
+//				this.consumeFuel();
+//			}
+//			
+//			// if burning and has smeltable inputs
+//			if (this.isBurning() && hasSmeltableInputs)
+//			{
+//				// increase cook progress
+//				this.cookProgress++;
+//				
+//				// if cook progress is complete, reset cook progress and do crafting
+//				if (this.cookProgress >= JumboFurnace.get().serverConfig.jumboFurnaceCookTime().get())
+//				{
+//					this.cookProgress = 0;
+//					this.craft();
+//				}
+//				dirty = true;
+//			}
+//			else // otherwise, reset cook progress
+//			{
+//				this.cookProgress = 0;
+//				dirty = true;
+//			}
+//		}
+//		// otherwise, if not burning but has cookprogress, reduce cook progress
+//		else if (!this.isBurning() && this.cookProgress > 0)
+//		{
+//			if (hasSmeltableInputs)
+//			{
+//				this.cookProgress = Math.max(0, this.cookProgress - 2);
+//			}
+//			else
+//			{
+//				this.cookProgress = 0;
+//			}
+//			dirty = true;
+//		}
+	}
+	
+	/**
+	 * @return The side of the furnace that output is pushed out of, or null if output isn't pushed
+	 */
+	@Nullable
+	public Direction getEjectDirection()
+	{
+		return this.ejectDirection;
+	}
+	
+	/**
+	 * Switches to pushing output out of the next side of the furnace, or to not pushing output after the last side
+	 */
+	public void cycleEjectDirection()
+	{
+		Direction[] directions = Direction.values();
+		this.ejectDirection = this.ejectDirection == null
+			? directions[0]
+			: this.ejectDirection.ordinal() + 1 < directions.length
+				? directions[this.ejectDirection.ordinal() + 1]
+				: null;
+		this.ejectTarget = null;
+		this.ejectPending = true;
+		this.nextEjectTime = Long.MIN_VALUE;
+		this.ejectBackoff = 0;
+		this.setChanged();
+	}
+	
+	private void tryEject(long gameTime)
+	{
+		Direction direction = this.ejectDirection;
+		if (direction == null || !(this.level instanceof ServerLevel serverLevel))
+			return;
+		
+		if (this.ejectTarget == null)
+		{
+			// push into whatever is against the middle of that side of the furnace
+			this.ejectTarget = BlockCapabilityCache.create(Capabilities.ItemHandler.BLOCK, serverLevel, this.worldPosition.relative(direction, this.tier.radius() + 1), direction.getOpposite(),
+				() -> !this.isRemoved(),
+				() -> {
+					// try again right away if the inventory there changes
+					this.nextEjectTime = Long.MIN_VALUE;
+					this.ejectBackoff = 0;
+				});
+		}
+		IItemHandler target = this.ejectTarget.getCapability();
+		boolean pushedAny = target != null && this.bulkTransfer(() -> this.pushOutput(target));
+		
+		boolean hasOutput = false;
+		int slots = this.output.getSlots();
+		for (int slot=0; slot<slots; slot++)
+		{
+			if (!this.output.getStackInSlot(slot).isEmpty())
+			{
+				hasOutput = true;
+				break;
+			}
+		}
+		// nothing to do until we have more output
+		this.ejectPending = hasOutput;
+		if (pushedAny)
+		{
+			this.ejectBackoff = 0;
+			this.nextEjectTime = gameTime + 1;
+		}
+		else if (hasOutput)
+		{
+			// if nothing would fit, wait a while before trying again, a bit longer each time
+			this.ejectBackoff = Math.min(MAX_EJECT_BACKOFF, Math.max(1, this.ejectBackoff * 2));
+			this.nextEjectTime = gameTime + this.ejectBackoff;
+		}
+	}
+	
+	/**
+	 * @return The side of the furnace that inputs are pulled in from, or null if inputs aren't pulled
+	 */
+	@Nullable
+	public Direction getPullDirection()
+	{
+		return this.pullDirection;
+	}
+	
+	/**
+	 * Switches to pulling inputs in from the next side of the furnace, or to not pulling inputs after the last side
+	 */
+	public void cyclePullDirection()
+	{
+		Direction[] directions = Direction.values();
+		this.pullDirection = this.pullDirection == null
+			? directions[0]
+			: this.pullDirection.ordinal() + 1 < directions.length
+				? directions[this.pullDirection.ordinal() + 1]
+				: null;
+		this.pullSource = null;
+		this.pullPending = true;
+		this.nextPullTime = Long.MIN_VALUE;
+		this.pullBackoff = 0;
+		this.setChanged();
+	}
+	
+	/**
+	 * @return Jobs that have been submitted but haven't started yet, in the order they'll start in
+	 */
+	public Collection<FurnaceJob> getQueuedJobs()
+	{
+		return Collections.unmodifiableCollection(this.jobQueue);
+	}
+	
+	/**
+	 * @return Inputs of jobs that were queued when we were saved, which haven't been given back through the input yet
+	 */
+	public List<ItemStack> getUnqueuedJobInputs()
+	{
+		return Collections.unmodifiableList(this.unqueuedJobInputs);
+	}
+	
+	/**
+	 * Submits a job to cook some number of crafts of a recipe from the given inputs, without needing to put them in the input slots.
+	 * Jobs start in the order they're submitted, as soon as there are enough free recipe slots,
+	 * and room in the output is reserved for their results as soon as they're accepted.
+	 * Jobs aren't restricted by the furnace's recipe lock.
+	 * @param recipeId Id of a smelting or jumbo smelting recipe
+	 * @param multiplier Number of crafts of the recipe to cook in one batch
+	 * @param inputs Exactly the items consumed by that many crafts of the recipe; if the job is accepted, the furnace takes ownership of these stacks
+	 * @param target Inventory to deliver the results to, or null to put them in the furnace's output.
+	 * Results that don't fit in the target when the job completes are put in the furnace's output.
+	 * @param listener Callbacks for when the job starts and completes
+	 * @return The queued job, or the reason the job was rejected
+	 */
+	public Either<FurnaceJob, FurnaceJob.Rejection> submitJob(ResourceLocation recipeId, int multiplier, List<ItemStack> inputs, @Nullable IItemHandler target, FurnaceJob.Listener listener)
+	{
+		if (!(this.level instanceof ServerLevel serverLevel))
+			return Either.right(FurnaceJob.Rejection.UNKNOWN_RECIPE);
+		
+		JumboFurnaceRecipe recipe = serverLevel.getRecipeManager().byKey(recipeId)
+			.map(holder -> holder.value() instanceof JumboFurnaceRecipe jumboRecipe ? jumboRecipe
+				: holder.value() instanceof SmeltingRecipe smeltingRecipe ? new JumboFurnaceRecipe(smeltingRecipe)
+				: null)
+			.orElse(null);
+		if (recipe == null)
+			return Either.right(FurnaceJob.Rejection.UNKNOWN_RECIPE);
+		
+		// assign the given inputs to the ingredients of every craft; the inputs must be used up exactly
+		if (multiplier < 1)
+			return Either.right(FurnaceJob.Rejection.INVALID_INPUTS);
+		int[][] assignments = assignJobInputs(recipe.ingredients(), multiplier, inputs);
+		if (assignments == null)
+			return Either.right(FurnaceJob.Rejection.INVALID_INPUTS);
+		List<ItemStack> jobInputs = new ArrayList<>();
+		List<ItemStack> remainders = new ArrayList<>();
+		for (int[] ingredientAssignments : assignments)
+		{
+			for (int input=0; input<inputs.size(); input++)
+			{
+				ItemStack inputStack = inputs.get(input);
+				for (int pull=0; pull<ingredientAssignments[input]; pull++)
+				{
+					ItemStack remainder = inputStack.getCraftingRemainingItem();
+					if (!remainder.isEmpty())
+					{
+						remainders.add(remainder.copy());
+					}
+					JumboFurnaceUtils.addMergedStack(jobInputs, inputStack.copyWithCount(1));
+				}
+			}
+		}
+		
+		// reserve room for the results and remainders alongside everything else we've promised room to
+		FurnaceJob job = new FurnaceJob(recipeId, recipe, multiplier, jobInputs, remainders, target, listener);
+		if (this.isBackstockFull())
+			return Either.right(FurnaceJob.Rejection.NO_OUTPUT_CAPACITY);
+		IItemHandler outputSimulator = JumboFurnaceUtils.copyItemHandler(this.getOutputAndInFlightRecipeResults());
+		for (ItemStack stack : job.results())
+		{
+			if (!JumboFurnaceUtils.insertItemStacked(outputSimulator, stack, false).isEmpty())
+				return Either.right(FurnaceJob.Rejection.NO_OUTPUT_CAPACITY);
+		}
+		for (ItemStack stack : remainders)
+		{
+			if (!JumboFurnaceUtils.insertItemStacked(outputSimulator, stack.copy(), false).isEmpty())
+				return Either.right(FurnaceJob.Rejection.NO_OUTPUT_CAPACITY);
+		}
+		
+		this.jobQueue.add(job);
+		this.outputSimulatorCache = outputSimulator;
+		this.shouldCheckRecipes = true;
+		this.setChanged();
+		return Either.left(job);
+	}
+	
+	/**
+	 * Assigns a job's inputs to the ingredients of its recipe, such that each ingredient gets as many matching items as every craft needs
+	 * and every input item is used. A greedy assignment isn't enough here, as an ingredient that accepts many items
+	 * can take the only items that a narrower ingredient would accept; this finds an assignment whenever one exists,
+	 * by treating it as a flow from ingredients to inputs and augmenting along shortest paths.
+	 * @param ingredients The recipe's ingredients
+	 * @param multiplier Number of crafts of the recipe
+	 * @param inputs The job's inputs
+	 * @return Number of items from each input assigned to each ingredient, indexed by [ingredient][input], or null if the inputs can't be assigned
+	 */
+	@Nullable
+	private static int[][] assignJobInputs(List<SizedIngredient> ingredients, int multiplier, List<ItemStack> inputs)
+	{
+		int ingredientCount = ingredients.size();
+		int inputCount = inputs.size();
+		int[] needLeft = new int[ingredientCount];
+		int[] supplyLeft = new int[inputCount];
+		long demand = 0L;
+		long supply = 0L;
+		for (int i=0; i<ingredientCount; i++)
+		{
+			long need = (long)ingredients.get(i).count() * multiplier;
+			if (need > Integer.MAX_VALUE)
+				return null;
+			needLeft[i] = (int)need;
+			demand += need;
+		}
+		for (int j=0; j<inputCount; j++)
+		{
+			ItemStack input = inputs.get(j);
+			supplyLeft[j] = input.isEmpty() ? 0 : input.getCount();
+			supply += supplyLeft[j];
+		}
+		if (demand != supply)
+			return null;
+		
+		boolean[][] matches = new boolean[ingredientCount][inputCount];
+		for (int i=0; i<ingredientCount; i++)
+		{
+			Ingredient ingredient = ingredients.get(i).ingredient();
+			for (int j=0; j<inputCount; j++)
+			{
+				matches[i][j] = supplyLeft[j] > 0 && ingredient.test(inputs.get(j));
+			}
+		}
+		
+		int[][] assigned = new int[ingredientCount][inputCount];
+		// for each node on the current search, the node we reached it from
+		// (ingredients are reached from inputs they give items back to, or from the start if they still need items)
+		int[] ingredientParents = new int[ingredientCount];
+		int[] inputParents = new int[inputCount];
+		IntArrayFIFOQueue queue = new IntArrayFIFOQueue();
+		long assignedTotal = 0L;
+		while (assignedTotal < demand)
+		{
+			Arrays.fill(ingredientParents, UNVISITED);
+			Arrays.fill(inputParents, UNVISITED);
+			queue.clear();
+			for (int i=0; i<ingredientCount; i++)
+			{
+				if (needLeft[i] > 0)
+				{
+					ingredientParents[i] = START;
+					queue.enqueue(i);
+				}
+			}
+			int end = UNVISITED;
+			while (!queue.isEmpty() && end == UNVISITED)
+			{
+				int i = queue.dequeueInt();
+				for (int j=0; j<inputCount; j++)
+				{
+					if (!matches[i][j] || inputParents[j] != UNVISITED)
+						continue;
+					inputParents[j] = i;
+					if (supplyLeft[j] > 0)
+					{
+						end = j;
+						break;
+					}
+					// this input is used up, but an ingredient using it could switch to another input
+					for (int k=0; k<ingredientCount; k++)
+					{
+						if (assigned[k][j] > 0 && ingredientParents[k] == UNVISITED)
+						{
+							ingredientParents[k] = j;
+							queue.enqueue(k);
+						}
+					}
+				}
+			}
+			if (end == UNVISITED)
+				return null;
+			
+			// move as many items along the path as it allows
+			int amount = supplyLeft[end];
+			for (int j = end;;)
+			{
+				int i = inputParents[j];
+				int previous = ingredientParents[i];
+				if (previous == START)
+				{
+					amount = Math.min(amount, needLeft[i]);
+					break;
+				}
+				amount = Math.min(amount, assigned[i][previous]);
+				j = previous;
+			}
+			supplyLeft[end] -= amount;
+			for (int j = end;;)
+			{
+				int i = inputParents[j];
+				assigned[i][j] += amount;
+				int previous = ingredientParents[i];
+				if (previous == START)
+				{
+					needLeft[i] -= amount;
+					break;
+				}
+				assigned[i][previous] -= amount;
+				j = previous;
+			}
+			assignedTotal += amount;
+		}
+		return assigned;
+	}
+	
+	/**
+	 * Starts queued jobs in order until we run out of jobs or don't have enough free recipe slots for the next one
+	 * @param gameTime Current game time
+	 * @return true if any jobs were started
+	 */
+	private boolean startQueuedJobs(long gameTime)
+	{
+		boolean startedAnyJobs = false;
+		double speedMultiplier = this.getSpeedMultiplier();
+		while (!this.jobQueue.isEmpty())
+		{
+			FurnaceJob job = this.jobQueue.peek();
+			// a job bigger than our parallelism can still start on its own
+			int freeRecipeSlots = this.getMaxSimultaneousRecipes() - this.getInFlightCraftCount();
+			if (job.multiplier() > freeRecipeSlots && !this.inFlightRecipes.isEmpty())
+				break;
+			
+			this.jobQueue.poll();
+			int duration = SpeedUpgrade.getEffectiveCookingTime(job.recipe().cookingTime(), speedMultiplier);
+			this.addInFlightRecipe(new InFlightRecipe(job.recipe(), job.inputs(), gameTime, job.multiplier(), duration).withJob(job));
+			for (ItemStack stack : job.remainders())
+			{
+				this.addToOutputOrBackstock(stack.copy());
+			}
+			job.listener().onStarted(job);
+			startedAnyJobs = true;
+		}
+		if (startedAnyJobs)
+		{
+			// the job's results moved from the queue to the inflight recipes, and its remainders to the output
+			this.outputSimulatorCache = null;
+			// the recipes we just started need heat to progress; if we don't have any, we'll burn fuel when our inventories change
+			if (!this.isBurning())
+			{
+				this.tryConsumeFuel(this.getOutputAndInFlightRecipeResults());
+			}
+		}
+		return startedAnyJobs;
+	}
+	
+	/**
+	 * @return The recipe lock, or null if the furnace can start any recipe
+	 */
+	@Nullable
+	public RecipeLock getRecipeLock()
+	{
+		return this.recipeLock;
+	}
+	
+	/**
+	 * Locks the furnace to one recipe, or unlocks it.
+	 * A locked furnace only starts that recipe and only accepts inputs that the recipe can use;
+	 * inputs already in the furnace are left alone.
+	 * @param recipe The recipe to lock to, or null to unlock
+	 */
+	public void setLockedRecipe(@Nullable JumboFurnaceRecipe recipe)
+	{
+		this.recipeLock = recipe == null ? null : RecipeLock.of(recipe);
+		this.shouldCheckRecipes = true;
+		this.pullPending = true;
+		this.nextPullTime = Long.MIN_VALUE;
+		this.pullBackoff = 0;
 		this.setChanged();
 	}
 	
-	public int getMaxSimultaneousRecipes()
+	/**
+	 * @return The recipe we'd lock to, which is the first recipe cooking or else the last recipe completed, or null if there isn't one
+	 */
+	@Nullable
+	public JumboFurnaceRecipe getLockableRecipe()
+	{
+		return this.inFlightRecipes.isEmpty()
+			? this.lastCompletedRecipe
+			: this.inFlightRecipes.get(0).recipe();
+	}
+	
+	/**
+	 * Unlocks the furnace if it's locked, or else locks it to the first recipe cooking or else the last recipe completed
+	 * @return true if the furnace is now locked
+	 */
+	public boolean toggleRecipeLock()
+	{
+		this.setLockedRecipe(this.recipeLock == null ? this.getLockableRecipe() : null);
+		return this.recipeLock != null;
+	}
+	
+	/**
+	 * @param stack An itemstack
+	 * @param recipeManager The recipe manager
+	 * @return Whether the stack can be used by any recipe we're allowed to start
+	 */
+	public boolean canSmelt(ItemStack stack, RecipeManager recipeManager)
+	{
+		return this.recipeLock != null
+			? this.recipeLock.accepts(stack)
+			: RecipeSorter.INSTANCE.hasRecipesFor(stack.getItem(), recipeManager);
+	}
+	
+	private void tryPull(long gameTime)
+	{
+		Direction direction = this.pullDirection;
+		if (direction == null || !(this.level instanceof ServerLevel serverLevel))
+			return;
+		
+		if (this.pullSource == null)
+		{
+			// pull from whatever is against the middle of that side of the furnace
+			this.pullSource = BlockCapabilityCache.create(Capabilities.ItemHandler.BLOCK, serverLevel, this.worldPosition.relative(direction, this.tier.radius() + 1), direction.getOpposite(),
+				() -> !this.isRemoved(),
+				() -> {
+					// try again right away if the inventory there changes
+					this.nextPullTime = Long.MIN_VALUE;
+					this.pullBackoff = 0;
+				});
+		}
+		IItemHandler source = this.pullSource.getCapability();
+		boolean pulledAny = source != null && this.bulkTransfer(() -> this.pullInputs(source, serverLevel));
+		if (pulledAny)
+		{
+			// pulling inputs makes us check recipes again, which decides whether we still need to pull
+			this.pullBackoff = 0;
+			this.nextPullTime = gameTime + 1;
+		}
+		else
+		{
+			// if there was nothing for us to take, wait a while before trying again, a bit longer each time
+			this.pullBackoff = Math.min(MAX_PULL_BACKOFF, Math.max(1, this.pullBackoff * 2));
+			this.nextPullTime = gameTime + this.pullBackoff;
+		}
+	}
+	
+	/**
+	 * Moves items that can be smelted from an inventory into our input slots, up to one stack per input slot
+	 * @param source Inventory to move items out of
+	 * @param serverLevel The level we're in
+	 * @return true if any items were moved
+	 */
+	private boolean pullInputs(IItemHandler source, ServerLevel serverLevel)
+	{
+		boolean pulledAny = false;
+		int stacksLeft = this.input.getSlots();
+		int slots = source.getSlots();
+		for (int slot=0; slot<slots && stacksLeft > 0; slot++)
+		{
+			ItemStack stack = source.getStackInSlot(slot);
+			if (stack.isEmpty() || !this.canSmelt(stack, serverLevel.getRecipeManager()))
+				continue;
+			
+			ItemStack available = source.extractItem(slot, stack.getMaxStackSize(), true);
+			if (available.isEmpty())
+				continue;
+			int accepted = available.getCount() - JumboFurnaceUtils.insertItemStacked(this.input, available, true).getCount();
+			if (accepted <= 0)
+				continue;
+			
+			ItemStack extracted = source.extractItem(slot, accepted, false);
+			ItemStack leftover = JumboFurnaceUtils.insertItemStacked(this.input, extracted, false);
+			int inserted = extracted.getCount() - leftover.getCount();
+			if (!leftover.isEmpty())
+			{
+				// we accepted less than we thought we would, put the rest back
+				// (these are inputs, so they must never go into our output or backstock;
+				// if the source won't take them back either, drop them in front of it)
+				leftover = source.insertItem(slot, leftover, false);
+				leftover = JumboFurnaceUtils.insertItemStacked(source, leftover, false);
+				if (!leftover.isEmpty())
+				{
+					Vec3 dropPos = Vec3.atCenterOf(this.worldPosition).relative(this.pullDirection, this.tier.radius() + 1);
+					Containers.dropItemStack(serverLevel, dropPos.x, dropPos.y, dropPos.z, leftover);
+				}
+			}
+			if (inserted > 0)
+			{
+				pulledAny = true;
+				stacksLeft--;
+			}
+		}
+		return pulledAny;
+	}
+	
+	/**
+	 * Moves as much as possible from each of our output slots into an inventory
+	 * @param target Inventory to move items into
+	 * @return true if any items were moved
+	 */
+	private boolean pushOutput(IItemHandler target)
 	{
-		return 1 + this.multiprocessUpgradeHandler.getStackInSlot(0).getCount();
+		boolean pushedAny = false;
+		int slots = this.output.getSlots();
+		for (int slot=0; slot<slots; slot++)
+		{
+			ItemStack stack = this.output.getStackInSlot(slot);
+			if (stack.isEmpty())
+				continue;
+			
+			int accepted = stack.getCount() - JumboFurnaceUtils.insertItemStacked(target, stack.copy(), true).getCount();
+			if (accepted <= 0)
+				continue;
+			
+			ItemStack extracted = this.output.extractItem(slot, accepted, false);
+			ItemStack leftover = JumboFurnaceUtils.insertItemStacked(target, extracted, false);
+			if (!leftover.isEmpty())
+			{
+				// the target accepted less than it said it would, keep the rest
+				this.addToOutputOrBackstock(leftover);
+			}
+			if (leftover.getCount() < extracted.getCount())
+			{
+				pushedAny = true;
+			}
+		}
+		return pushedAny;
 	}
 	
-	protected void serverTick()
+	/**
+	 * Does everything that needs to be done in a tick where something discrete happens or our inventories have changed
+	 * @param gameTime Current game time
+	 */
+	private void tickEvents(long gameTime)
 	{
+		// bring our heat and recipe progress up to date as of the end of the previous tick
+		boolean dirty = this.catchUpTo(gameTime - 1);
 		boolean wasBurningBeforeTick = this.burnTimeRemaining > 0;
-		// if we're on fire, we're definitely going to call setChanged later because we're going to decrement heat
-		boolean dirty = wasBurningBeforeTick;
 		
 		// okay this is everything we need to do:
 		
@@ -157,21 +1282,23 @@ public class JumboFurnaceCoreBlockEntity extends BlockEntity
 		// if we have heat, great
 		// if we don't have heat, but we have fuel, we may be able to burn it depending on the inventory state
 		
-		// then if we have heat or fuel, process each inflight recipe
-		if (this.hasHeatOrFuel())
+		// then process each inflight recipe, heating them if we have heat or fuel
+		// (recipes that we can't heat this tick are delayed)
+		if (this.inFlightRecipes.isEmpty())
 		{
-			boolean processedAnyRecipes = this.processInflightRecipes();
-			if (processedAnyRecipes)
-			{
-				dirty = true;
-			}
-			// if we didn't increment any recipes, decrement heat (always lose at least one heat/tick)
-			else if (this.burnTimeRemaining > 0)
+			// if we don't have any recipes to heat, decrement heat (always lose at least one heat/tick)
+			if (this.burnTimeRemaining > 0)
 			{
-				this.burnTimeRemaining --;
-				dirty = true;
+				this.burnTimeRemaining--;
 			}
 		}
+		// we only need to save if something discrete happened (recipes completing, fuel being consumed, etc)
+		// ordinary progress and heat loss are already described by our anchors
+		else if (this.processInflightRecipes(gameTime))
+		{
+			this.markInFlightRecipesChanged();
+			dirty = true;
+		}
 		
 		// we don't want to check recipes or fuel stock unless we need to
 		// for fuel stock, "we need to" = "fuel inventory has updated since we last checked"
@@ -179,13 +1306,24 @@ public class JumboFurnaceCoreBlockEntity extends BlockEntity
 			// we are unlit and fuel stock has increased since we last checked, or
 			// inputs have been added to since we last checked recipes, or
 			// outputs have decreased since we last checked recipes
-		if (this.hasHeatOrFuel() && this.shouldCheckRecipes())
+		// (if we have no heat or fuel, adding fuel will tell us to check again)
+		boolean checkRecipes = this.shouldCheckRecipes();
+		// submitted jobs start before we look for recipes in our own inputs,
+		// and we don't start anything else until they've all started
+		// (otherwise our own recipes could keep taking the slots that a big job is waiting for)
+		if (checkRecipes && !this.jobQueue.isEmpty() && this.startQueuedJobs(gameTime))
+		{
+			dirty = true;
+		}
+		if (checkRecipes && this.jobQueue.isEmpty() && this.hasHeatOrFuel())
 		{
-			boolean processedAnyInputs = this.processInputs();
+			boolean processedAnyInputs = this.processInputs(gameTime);
 			if (processedAnyInputs)
 			{
 				dirty = true;
 			}
+			// if we still have room for more recipes, we didn't have the inputs to start them
+			this.pullPending = this.getInFlightCraftCount() < this.getMaxSimultaneousRecipes() && !this.isBackstockFull();
 		}
 		// then update litness and update neighbors if necessary
 		boolean isBurningAfterTick = this.burnTimeRemaining > 0;
@@ -194,93 +1332,134 @@ public class JumboFurnaceCoreBlockEntity extends BlockEntity
 		if (isBurningAfterTick != wasBurningBeforeTick)
 		{
 			this.updateBurningBlockstates(isBurningAfterTick);
+			this.progressRevision++;
+			dirty = true;
 		}
 		
+		// re-anchor our heat and recipe progress to the current tick
+		this.anchorTime = gameTime;
+		this.nextEventTime = Long.MIN_VALUE;
+		
 		if (dirty)
 		{
 			this.setChanged();
-			BlockPos.betweenClosedStream(this.getBlockPos().offset(-1,-1,-1), this.getBlockPos().offset(1,1,1)).forEach(subPos ->
+			MultiBlockHelper.getCubeAround(this.getBlockPos(), this.tier).forEach(subPos ->
 			{
 				BlockState state = this.level.getBlockState(subPos);
 				this.level.updateNeighborsAt(subPos, state.getBlock());
 			});
-				
 		}
-		
-		
-//		// if burning, decrement burn time
-//		boolean dirty = false;
-//		boolean wasBurningBeforeTick = this.isBurning();
-//		if (wasBurningBeforeTick)
-//		{
-//			this.burnTimeRemaining -= this.getBurnConsumption();
-//			dirty = true;
-//		}
-//		// reinform self of own state if inventories have changed
-//		if (this.needsRecipeUpdate)
-//		{
-//			this.updateRecipes();
-//		}
-//		if (this.needsOutputUpdate)
-//		{
-//			this.updateOutput();
-//		}
-//		if (this.needsFuelUpdate)
-//		{
-//			this.updateFuel();
-//		}
-//		
-//		boolean hasSmeltableInputs = this.cachedRecipes.getRecipeCount() > 0;
-//		
-//		// if burning, or if it can consume fuel and has a smeltable input
-//		if (this.isBurning() || (this.canConsumeFuel && hasSmeltableInputs))
-//		{
-//			// if not burning but can start cooking
-//			// this also implies that we can consume fuel
-//			if (!this.isBurning() && hasSmeltableInputs)
-//			{
-//				// consume fuel and start burning
-//				this.consumeFuel();
-//			}
-//			
-//			// if burning and has smeltable inputs
-//			if (this.isBurning() && hasSmeltableInputs)
-//			{
-//				// increase cook progress
-//				this.cookProgress++;
-//				
-//				// if cook progress is complete, reset cook progress and do crafting
-//				if (this.cookProgress >= JumboFurnace.get().serverConfig.jumboFurnaceCookTime().get())
-//				{
-//					this.cookProgress = 0;
-//					this.craft();
-//				}
-//				dirty = true;
-//			}
-//			else // otherwise, reset cook progress
-//			{
-//				this.cookProgress = 0;
-//				dirty = true;
-//			}
-//		}
-//		// otherwise, if not burning but has cookprogress, reduce cook progress
-//		else if (!this.isBurning() && this.cookProgress > 0)
-//		{
-//			if (hasSmeltableInputs)
-//			{
-//				this.cookProgress = Math.max(0, this.cookProgress - 2);
-//			}
-//			else
-//			{
-//				this.cookProgress = 0;
-//			}
-//			dirty = true;
-//		}
+	}
+	
+	/**
+	 * @return Heat consumed per tick while all inflight recipes are heated
+	 */
+	private int getHeatPerTick()
+	{
+		long heat = 0L;
+		for (InFlightRecipe recipe : this.inFlightRecipes)
+		{
+			heat += recipe.heatPerTick();
+		}
+		return (int)Math.max(1L, Math.min(Integer.MAX_VALUE, heat));
+	}
+	
+	/**
+	 * @return Heat needed per tick by the inflight recipe that needs the least, i.e. the least heat with which anything can progress
+	 */
+	private int getMinHeatPerTick()
+	{
+		int heat = Integer.MAX_VALUE;
+		for (InFlightRecipe recipe : this.inFlightRecipes)
+		{
+			heat = Math.min(heat, recipe.heatPerTick());
+		}
+		return Math.max(1, heat);
+	}
+	
+	/**
+	 * @return Whether every inflight recipe will be heated in the next tick, because we have enough heat for all of them or fuel to make more;
+	 * if not, they may be delayed, so clients shouldn't assume they progress
+	 */
+	public boolean isHeatingInFlightRecipes()
+	{
+		return !this.inFlightRecipes.isEmpty()
+			&& (this.burnTimeRemaining >= this.getHeatPerTick() || this.hasFuel());
+	}
+	
+	/**
+	 * @return The number of ticks after the anchor time in which heat is consumed and every inflight recipe progresses
+	 * without any recipes completing or heat running out
+	 */
+	private long getRunningTicksAfterAnchor()
+	{
+		if (this.burnTimeRemaining <= 0)
+		{
+			return 0L;
+		}
+		// heat must remain positive after each running tick
+		long runningTicks = (this.burnTimeRemaining - 1) / this.getHeatPerTick();
+		for (InFlightRecipe recipe : this.inFlightRecipes)
+		{
+			runningTicks = Math.min(runningTicks, recipe.completionTick() - this.anchorTime - 1);
+		}
+		return Math.max(0L, runningTicks);
+	}
+	
+	/**
+	 * @return The game time of the next tick in which something discrete happens, e.g. a recipe completes or heat runs out
+	 */
+	private long getNextEventTime()
+	{
+		if (this.nextEventTime == Long.MIN_VALUE)
+		{
+			// if we have no heat, nothing happens until our inventories change
+			this.nextEventTime = this.burnTimeRemaining > 0
+				? this.anchorTime + this.getRunningTicksAfterAnchor() + 1
+				: Long.MAX_VALUE;
+		}
+		return this.nextEventTime;
+	}
+	
+	/**
+	 * Moves the anchor time forward, updating heat and recipe start ticks to match
+	 * @param targetTime Game time to update to, should be before the next event time
+	 * @return true if this changed anything other than the representation of our state
+	 * (this can happen if we were unloaded for a while and the game time has moved past our next event)
+	 */
+	private boolean catchUpTo(long targetTime)
+	{
+		long elapsed = targetTime - this.anchorTime;
+		if (elapsed <= 0)
+		{
+			return false;
+		}
+		boolean wasBurning = this.burnTimeRemaining > 0;
+		long runningTicks = Math.min(elapsed, this.getRunningTicksAfterAnchor());
+		this.burnTimeRemaining -= (int)(runningTicks * this.getHeatPerTick());
+		// any ticks we weren't running were ticks where the inflight recipes didn't progress
+		long stalledTicks = elapsed - runningTicks;
+		if (stalledTicks > 0 && !this.inFlightRecipes.isEmpty())
+		{
+			for (InFlightRecipe recipe : this.inFlightRecipes)
+			{
+				recipe.delay(stalledTicks);
+			}
+			this.markInFlightRecipesChanged();
+		}
+		this.anchorTime = targetTime;
+		this.nextEventTime = Long.MIN_VALUE;
+		return wasBurning && stalledTicks > 0;
 	}
 	
 	private boolean hasHeatOrFuel()
 	{
-		if (this.burnTimeRemaining > 0)
+		return this.burnTimeRemaining > 0 || this.hasFuel();
+	}
+	
+	private boolean hasFuel()
+	{
+		if (this.getNextBulkFuelBurnTime() > 0)
 			return true;
 		
 		int slots = this.fuel.getSlots();
@@ -307,12 +1486,17 @@ public class JumboFurnaceCoreBlockEntity extends BlockEntity
 	/**
 	 * @return true if we processed any inputs
 	 */
-	private boolean processInputs()
+	private boolean processInputs(long gameTime)
 	{
-		int freeRecipeSlots = this.getMaxSimultaneousRecipes() - this.inFlightRecipes.size();
+		int freeRecipeSlots = this.getMaxSimultaneousRecipes() - this.getInFlightCraftCount();
 		if (freeRecipeSlots <= 0)
 			return false;
 		
+		// don't make more results while we're still keeping too many that didn't fit in the output
+		// (taking items out of the output refills it from the backstock, so we'll check again then)
+		if (this.isBackstockFull())
+			return false;
+		
 		// we want to check the conceivably-craftable recipes in order of specificity
 		// if we find a startable recipe, we start it
 		// a recipe is startable if
@@ -327,14 +1511,19 @@ public class JumboFurnaceCoreBlockEntity extends BlockEntity
 		// the neat thing about furnace recipes is that most items are going to be used in like one recipe at most,
 		// maybe more if the server has lots of multi-input recipes or there's a lot of mod overlap in the modpack
 		// but this list is expected to be much smaller than just iterating over the entire recipe list each time
+		// (and if we're locked to one recipe, we don't need to look anything up at all)
+		RecipeLock lock = this.recipeLock;
 		Set<Item> currentInputItems = new ReferenceOpenHashSet<>();
-		int slots = this.input.getSlots();
-		for (int i=0; i<slots; i++)
+		if (lock == null)
 		{
-			ItemStack stack = this.input.getStackInSlot(i);
-			if (!stack.isEmpty())
+			int slots = this.input.getSlots();
+			for (int i=0; i<slots; i++)
 			{
-				currentInputItems.add(stack.getItem());
+				ItemStack stack = this.input.getStackInSlot(i);
+				if (!stack.isEmpty())
+				{
+					currentInputItems.add(stack.getItem());
+				}
 			}
 		}
 		// create output simulator, we will use this to make sure we have room for recipe results + remainders
@@ -348,8 +1537,15 @@ public class JumboFurnaceCoreBlockEntity extends BlockEntity
 		ItemStack consumableFuel = ItemStack.EMPTY;
 		int consumableFuelValue = 0;
 		IItemHandler newFuelInventory = this.fuel;
+		// energy and fluid fuel have no remainders, so we don't need to simulate anything for them
+		boolean burnBulkFuel = false;
 		
-		if (!this.isBurning())
+		if (!this.isBurning() && this.getNextBulkFuelBurnTime() > 0)
+		{
+			consumableFuelValue = this.getNextBulkFuelBurnTime();
+			burnBulkFuel = true;
+		}
+		else if (!this.isBurning())
 		{
 			newFuelInventory = JumboFurnaceUtils.copyItemHandler(this.fuel); 
 			consumableFuel = simulateConsumeFuel(newFuelInventory, outputSimulator);
@@ -363,12 +1559,24 @@ public class JumboFurnaceCoreBlockEntity extends BlockEntity
 		}
 		
 		boolean startedAnyRecipes = false;
-		var recipes = RecipeSorter.INSTANCE.getSortedFurnaceRecipesValidForInputs(currentInputItems, this.level.getRecipeManager());
+		double speedMultiplier = this.getSpeedMultiplier();
+		var recipes = lock != null
+			? lock.candidates()
+			: RecipeSorter.INSTANCE.getSortedFurnaceRecipesValidForInputs(currentInputItems, this.level.getRecipeManager(), this.schedulingPolicy.candidateOrder());
+		
+		// if we're using the optimizing planner, it decides how many crafts of each recipe to start
+		// otherwise we start as many as we can of each recipe in turn
+		Reference2IntMap<JumboFurnaceRecipe> plannedCrafts = null;
+		ServerConfig serverConfig = JumboFurnace.get().serverConfig;
+		if (recipes.size() > 1 && serverConfig.optimizingPlanner().get())
+		{
+			plannedCrafts = RecipePlanner.plan(new ArrayList<>(recipes), this.input, outputSimulator, freeRecipeSlots,
+				TimeUnit.MICROSECONDS.toNanos(serverConfig.plannerTimeBudget().get()));
+		}
 		
-		iterateRecipes:
 		for (var recipe : recipes)
 		{
-			if (this.inFlightRecipes.size() >= this.getMaxSimultaneousRecipes())
+			if (freeRecipeSlots <= 0)
 			{
 				break;
 			}
@@ -384,80 +1592,49 @@ public class JumboFurnaceCoreBlockEntity extends BlockEntity
 			// add the remainders to the output
 			// update the real output simulator
 			// repeat for this recipe until we run out of ingredients or recipe slots
-			int maxIterations = this.getMaxSimultaneousRecipes() - this.inFlightRecipes.size();
-			for (int recipeIteration = 0; recipeIteration < maxIterations; recipeIteration++)
+			// every craft of the recipe we start this tick goes into one batch,
+			// so the inputs and remainders of the whole batch are applied to the real inventories once
+			int batchLimit = plannedCrafts == null
+				? freeRecipeSlots
+				: Math.min(freeRecipeSlots, plannedCrafts.getInt(recipe));
+			IItemHandler batchInputSimulator = this.input;
+			List<ItemStack> batchInputs = new ArrayList<>();
+			List<ItemStack> batchRemainders = new ArrayList<>();
+			int batchCount = 0;
+			while (batchCount < batchLimit)
 			{
-				IItemHandler inputSimulator = JumboFurnaceUtils.copyItemHandler(this.input);
-				List<ItemStack> recipeInputs = new ArrayList<>();
-				List<ItemStack> remainders = new ArrayList<>();
-				for (SizedIngredient sizedIngredient : recipe.ingredients())
-				{
-					Ingredient ingredient = sizedIngredient.ingredient();
-					int requiredPulls = sizedIngredient.count();
-					for (int pull = 0; pull < requiredPulls; pull++)
-					{
-						// attempt to find matching stacks, pull them out of the input simulator
-						boolean foundInput = false;
-						int inputSlots = inputSimulator.getSlots();
-						for (int inputSlot=0; inputSlot < inputSlots; inputSlot++)
-						{
-							// check each ingredient slot until we find one
-							if (ingredient.test(inputSimulator.extractItem(inputSlot, 1, true)))
-							{
-								ItemStack inputStack = inputSimulator.extractItem(inputSlot, 1, false);
-								ItemStack remainder = inputStack.getCraftingRemainingItem();
-								if (!remainder.isEmpty())
-								{
-									remainders.add(remainder.copy());
-								}
-								recipeInputs.add(inputStack.copy());
-								foundInput = true;
-								break;
-							}
-						}
-						// if we didn't find this ingredient, skip to the next recipe
-						if (!foundInput) {
-							continue iterateRecipes;
-						}
-					}
-					// if we're still here, we found the required number of this ingredient
-				}
-				// if we're still here, we found every required ingredient
-				// now check if we have room in the output simulator for results + remainders
-				IItemHandler outputSimulatorForRecipe = JumboFurnaceUtils.copyItemHandler(outputSimulator);
-				// TODO at some point we should support ingredient-sensitive outputs
-				// currently neither vanilla smelting recipes nor jumbo recipes support this
-				// (vanilla #assemble doesn't support multiple outputs)
-				// this requires custom recipe serializers that use a jumbo smelting recipe type
-				// so adding this feature would be in support of mods that are adding their own custom jumbo recipes
-				// so we can add support if it's requested by other mods but otherwise we'll leave it alone
-				for (ItemStack stack : recipe.results())
+				RecipePlanner.Craft craft = RecipePlanner.simulateCraft(recipe, batchInputSimulator, outputSimulator);
+				// if we didn't find the ingredients or there wasn't room for the results, we can't make any more of this recipe
+				if (craft == null)
 				{
-					// use insertItemStacked to prioritize slots that already have partial stacks of that item in them
-					if (!ItemHandlerHelper.insertItemStacked(outputSimulatorForRecipe, stack.copy(), false).isEmpty())
-					{
-						continue iterateRecipes;
-					}
+					break;
 				}
-				for (ItemStack stack : remainders)
+				// this craft is 100% valid, we have all inputs and we have room for all outputs
+				// update the output simulator as it now has the recipe results and remainders
+				outputSimulator = craft.outputs();
+				// add the craft to the batch
+				batchInputSimulator = craft.inputs();
+				for (ItemStack stack : craft.consumed())
 				{
-					if (!ItemHandlerHelper.insertItemStacked(outputSimulatorForRecipe, stack, false).isEmpty())
-					{
-						continue iterateRecipes;
-					}
+					JumboFurnaceUtils.addMergedStack(batchInputs, stack);
 				}
-				// this recipe is 100% valid, we have all inputs and we have room for all outputs
-				// update the output simulator as it now has the recipe results and remainders
-				outputSimulator = outputSimulatorForRecipe;
+				batchRemainders.addAll(craft.remainders());
+				batchCount++;
+			}
+			
+			if (batchCount > 0)
+			{
 				// update the input from the simulator
-				JumboFurnaceUtils.copyItemHandlerTo(inputSimulator, this.input);
-				// start a new inflight recipe
-				this.inFlightRecipes.add(new InFlightRecipe(recipe, recipeInputs));
+				JumboFurnaceUtils.copyItemHandlerTo(batchInputSimulator, this.input);
+				// start a new inflight recipe batch
+				int duration = SpeedUpgrade.getEffectiveCookingTime(recipe.cookingTime(), speedMultiplier);
+				this.addInFlightRecipe(new InFlightRecipe(recipe, batchInputs, gameTime, batchCount, duration));
 				// add the remainders to the real output
-				for (ItemStack stack : remainders)
+				for (ItemStack stack : batchRemainders)
 				{
 					addToOutputOrBackstock(stack);
 				}
+				freeRecipeSlots -= batchCount;
 				startedAnyRecipes = true;
 			}
 			
@@ -465,7 +1642,11 @@ public class JumboFurnaceCoreBlockEntity extends BlockEntity
 		// if we simulated consuming fuel AND processed at least one recipe,
 		// update burn time and fuel inventory
 		
-		if (consumableFuelValue > 0 && startedAnyRecipes)
+		if (burnBulkFuel && startedAnyRecipes)
+		{
+			this.burnBulkFuel();
+		}
+		else if (consumableFuelValue > 0 && startedAnyRecipes)
 		{
 			this.burnTimeRemaining += consumableFuelValue;
 			this.lastItemBurnedValue = consumableFuelValue;
@@ -494,9 +1675,11 @@ public class JumboFurnaceCoreBlockEntity extends BlockEntity
 	}
 	
 	/**
-	 * @return true if any recipes were progressed
+	 * Progresses inflight recipes for the current tick, consuming heat and fuel as needed
+	 * @param gameTime Current game time
+	 * @return true if any recipes completed or couldn't be heated, or any fuel was consumed
 	 */
-	private boolean processInflightRecipes()
+	private boolean processInflightRecipes(long gameTime)
 	{
 		if (this.inFlightRecipes.isEmpty())
 			return false;
@@ -504,67 +1687,132 @@ public class JumboFurnaceCoreBlockEntity extends BlockEntity
 		// we'll also need to remember whether any fuel can be conceivably consumed
 		// so we don't keep checking on each subsequent recipe
 		boolean anyFuelLeftToCheck = true;
-		boolean progressedAnyRecipes = false;
+		boolean changedAnything = false;
 		
 		// we can't modify a list while we iterate over it, so we need to copy the results to a new list as we iterate
+		// (the recipes are in the scheduling policy's order, so if heat is scarce, the recipes it favors get it first)
 		List<InFlightRecipe> remainingRecipes = new ArrayList<>();
 		for (InFlightRecipe recipe : this.inFlightRecipes)
 		{
-			if (anyFuelLeftToCheck)
+			// for each recipe batch, try to progress
+			// each craft in the batch needs heat (more if sped up); if we don't have enough, try to consume fuel
+			int heatNeeded = recipe.heatPerTick();
+			boolean hasHeat = this.burnTimeRemaining >= heatNeeded;
+			while (!hasHeat && anyFuelLeftToCheck)
+			{
+				if (this.tryConsumeFuel(this.getOutputAndInFlightRecipeResults()))
+				{
+					hasHeat = this.burnTimeRemaining >= heatNeeded;
+					changedAnything = true;
+				}
+				else
+				{
+					anyFuelLeftToCheck = false;
+				}
+			}
+			if (hasHeat)
 			{
-				// for each recipe, try to progress
-				// if we have no heat, try to consume fuel
-				if (this.tryHaveHeat())
+				// then if we have heat, the batch progresses this tick
+				this.burnTimeRemaining -= heatNeeded;
+				// also, when a recipe gains 100% progress, we remove it from the inflight recipe list, and add its result to the output inventory
+				if (recipe.isComplete(gameTime))
 				{
-					// then if we have heat, increment recipe progress
-					progressedAnyRecipes = true;
-					this.burnTimeRemaining--;
-					boolean completed = recipe.incrementProgress();
-					// also, when a recipe gains 100% progress, we remove it from the inflight recipe list, and add its result to the output inventory
-					if (completed)
+					// if we concluded a recipe
+					// (results of submitted jobs go to the job's target if it has room)
+					FurnaceJob job = recipe.job();
+					List<ItemStack> undelivered = new ArrayList<>();
+					for (ItemStack stack : recipe.results())
 					{
-						// if we concluded a recipe
-						for (ItemStack stack : recipe.recipe().results())
+						ItemStack leftover = job == null ? stack : job.deliver(stack);
+						if (!leftover.isEmpty())
 						{
-							this.addToOutputOrBackstock(stack.copy());
+							undelivered.add(leftover.copy());
+							this.addToOutputOrBackstock(leftover);
 						}
-						this.output.addExperience(recipe.recipe().experience());
-						// we have more room for new recipes so we should check them again
-						this.shouldCheckRecipes = true;
 					}
-					else
+					this.output.addExperience(recipe.recipe().experience() * recipe.count());
+					this.lastCompletedRecipe = recipe.recipe();
+					if (job != null)
 					{
-						// if we didn't complete the recipe, return it to the list
-						remainingRecipes.add(recipe);
+						job.listener().onCompleted(job, undelivered);
 					}
+					// we have more room for new recipes so we should check them again
+					this.shouldCheckRecipes = true;
+					changedAnything = true;
 				}
-				// but if we weren't able to have heat, then we can't progress any further recipes
 				else
 				{
-					anyFuelLeftToCheck = false;
+					// if we didn't complete the recipe, return it to the list
 					remainingRecipes.add(recipe);
 				}
 			}
+			// but if we weren't able to have heat, the batch doesn't progress this tick
+			// (smaller batches after it may still have enough)
 			else
 			{
+				recipe.delay(1);
 				remainingRecipes.add(recipe);
+				changedAnything = true;
 			}
 		}
 		this.inFlightRecipes = remainingRecipes;
-		return progressedAnyRecipes;
+		
+		// if what's left of our heat isn't enough to heat any of the remaining recipes next tick, top it up now,
+		// and if we have no fuel to do that with, let it go out:
+		// otherwise it would keep us lit without anything progressing, and we'd have an event every tick
+		// (this loses less than the heat per tick of the cheapest recipe, once each time we run out of fuel)
+		if (this.burnTimeRemaining > 0 && !this.inFlightRecipes.isEmpty())
+		{
+			int minHeatNeeded = this.getMinHeatPerTick();
+			while (this.burnTimeRemaining < minHeatNeeded && anyFuelLeftToCheck)
+			{
+				if (this.tryConsumeFuel(this.getOutputAndInFlightRecipeResults()))
+				{
+					changedAnything = true;
+				}
+				else
+				{
+					anyFuelLeftToCheck = false;
+				}
+			}
+			if (this.burnTimeRemaining < minHeatNeeded)
+			{
+				this.burnTimeRemaining = 0;
+				changedAnything = true;
+			}
+		}
+		return changedAnything;
 	}
 	
 	/**
-	 * Tries to put the furnace into a state of having heat.
-	 * If we already have heat, we are good.
-	 * Otherwise, tries to consume fuel based on current output simulation.
-	 * @return
+	 * @return Heat that would be given by the next burn of energy or fluid fuel, or 0 if we have neither
 	 */
-	private boolean tryHaveHeat()
+	private int getNextBulkFuelBurnTime()
 	{
-		return this.burnTimeRemaining > 0 || this.tryConsumeFuel(this.getOutputAndInFlightRecipeResults());
+		int energyBurnTime = this.energy.getNextBurnTime();
+		return energyBurnTime > 0
+			? energyBurnTime
+			: this.fuelTank.getNextBurnTime();
 	}
-
+	
+	/**
+	 * Converts stored energy to heat, or burns fluid from the fuel tank if we don't have enough energy
+	 * @return true if any energy or fluid was burned
+	 */
+	private boolean burnBulkFuel()
+	{
+		int burnTime = this.energy.getNextBurnTime() > 0
+			? this.energy.burnNext()
+			: this.fuelTank.burnNext();
+		if (burnTime <= 0)
+		{
+			return false;
+		}
+		this.burnTimeRemaining += burnTime;
+		this.lastItemBurnedValue = burnTime;
+		return true;
+	}
+	
 	// let's say we're about to consume fuel so we can initiate or progress a recipe
 	// usually this has no complications as long as we have fuel in the slots
 	// but, suppose one of the fuel itemstacks has a crafting remaining item, like iron buckets
@@ -589,6 +1837,11 @@ public class JumboFurnaceCoreBlockEntity extends BlockEntity
 	// and we only need an output simulator, so we can use the same impl for both cases
 	private boolean tryConsumeFuel(IItemHandler outputSimulator)
 	{
+		// burn energy and fluid fuel first, they don't leave anything behind
+		if (this.burnBulkFuel())
+		{
+			return true;
+		}
 		int slots = this.fuel.getSlots();
 		for (int slot=0; slot<slots; slot++)
 		{
@@ -600,8 +1853,8 @@ public class JumboFurnaceCoreBlockEntity extends BlockEntity
 				// if there is no remainder item, no further checks needed.
 				// if there is a remainder item, use the fuel if it fits in the output simulator
 				if (remainder.isEmpty()
-					|| (JumboFurnaceUtils.getJumboSmeltingBurnTime(remainder) > 0 && ItemHandlerHelper.insertItemStacked(this.fuel, remainder, true).isEmpty())
-					|| ItemHandlerHelper.insertItemStacked(outputSimulator, remainder, true).isEmpty())
+					|| (JumboFurnaceUtils.getJumboSmeltingBurnTime(remainder) > 0 && JumboFurnaceUtils.insertItemStacked(this.fuel, remainder, true).isEmpty())
+					|| JumboFurnaceUtils.insertItemStacked(outputSimulator, remainder, true).isEmpty())
 				{
 					this.fuel.extractItem(slot, 1, false);
 					this.burnTimeRemaining += burnTime;
@@ -643,13 +1896,13 @@ public class JumboFurnaceCoreBlockEntity extends BlockEntity
 				// if remainder item is also a fuel, try to return it to the fuel inventory
 				if (JumboFurnaceUtils.getJumboSmeltingBurnTime(remainder) > 0)
 				{
-					remainder = ItemHandlerHelper.insertItemStacked(fuelInventory, remainder.copy(), true);
+					remainder = JumboFurnaceUtils.insertItemStacked(fuelInventory, remainder.copy(), true);
 					if (remainder.isEmpty())
 					{
 						return stackInSlot.copy();
 					}
 				}
-				if (ItemHandlerHelper.insertItemStacked(outputInventory, remainder.copy(), false).isEmpty())
+				if (JumboFurnaceUtils.insertItemStacked(outputInventory, remainder.copy(), false).isEmpty())
 				{
 					return stackInSlot.copy();
 				}
@@ -667,9 +1920,21 @@ public class JumboFurnaceCoreBlockEntity extends BlockEntity
 			IItemHandler outputSimulator = JumboFurnaceUtils.copyItemHandler(this.output);
 			for (InFlightRecipe recipe : this.inFlightRecipes)
 			{
-				for (ItemStack stack : recipe.recipe().results())
+				for (ItemStack stack : recipe.results())
+				{
+					JumboFurnaceUtils.insertItemStacked(outputSimulator, stack, false);
+				}
+			}
+			// queued jobs have room reserved for their results and remainders too
+			for (FurnaceJob job : this.jobQueue)
+			{
+				for (ItemStack stack : job.results())
+				{
+					JumboFurnaceUtils.insertItemStacked(outputSimulator, stack, false);
+				}
+				for (ItemStack stack : job.remainders())
 				{
-					ItemHandlerHelper.insertItemStacked(outputSimulator, stack.copy(), false);
+					JumboFurnaceUtils.insertItemStacked(outputSimulator, stack.copy(), false);
 				}
 			}
 			this.outputSimulatorCache = outputSimulator;
@@ -748,13 +2013,77 @@ public class JumboFurnaceCoreBlockEntity extends BlockEntity
 //		}
 //	}
 
+	/**
+	 * Starts a bulk transfer; until the matching {@link #endBulkTransfer}, changes to our inventories
+	 * don't notify neighbors or comparators, and they are notified once when the outermost bulk transfer ends.
+	 * Prefer {@link #bulkTransfer(Supplier)} where possible.
+	 */
+	public void beginBulkTransfer()
+	{
+		this.bulkTransferDepth++;
+	}
+	
+	/**
+	 * Ends a bulk transfer started by {@link #beginBulkTransfer}
+	 */
+	public void endBulkTransfer()
+	{
+		if (this.bulkTransferDepth > 0 && --this.bulkTransferDepth == 0 && this.changedDuringBulkTransfer)
+		{
+			this.changedDuringBulkTransfer = false;
+			this.setChanged();
+		}
+	}
+	
+	/**
+	 * Runs any number of inserts and extracts on our itemhandlers, notifying neighbors of changes once afterward
+	 * instead of once per slot changed
+	 * @param <T> Result type of the transfer
+	 * @param transfer Function that uses our itemhandlers
+	 * @return The result of the transfer
+	 */
+	public <T> T bulkTransfer(Supplier<T> transfer)
+	{
+		this.beginBulkTransfer();
+		try
+		{
+			return transfer.get();
+		}
+		finally
+		{
+			this.endBulkTransfer();
+		}
+	}
+	
+	/**
+	 * Runs a transfer on an itemhandler, as a bulk transfer if the itemhandler belongs to a jumbo furnace.
+	 * Only that furnace's notifications are deferred: any other itemhandler the transfer touches
+	 * (another mod's inventory, or a copy from {@link JumboFurnaceUtils#copyItemHandler}) is passed through as is,
+	 * and a cluster's shared input defers its own furnace's notifications but not those of the other furnaces it inserts into.
+	 * @param <T> Result type of the transfer
+	 * @param handler An itemhandler
+	 * @param transfer Function that uses the itemhandler
+	 * @return The result of the transfer
+	 */
+	public static <T> T bulkTransfer(IItemHandler handler, Supplier<T> transfer)
+	{
+		return handler instanceof CoreItemHandler coreHandler
+			? coreHandler.getCore().bulkTransfer(transfer)
+			: transfer.get();
+	}
+
 	@Override
 	public void setChanged()
 	{
+		if (this.bulkTransferDepth > 0)
+		{
+			this.changedDuringBulkTransfer = true;
+			return;
+		}
 		super.setChanged();
 		
 		// make sure comparators reading from exterior blocks are updated as well
-		MultiBlockHelper.get3x3CubeAround(this.worldPosition)
+		MultiBlockHelper.getCubeAround(this.worldPosition, this.tier)
 			.filter(exteriorPos -> !exteriorPos.equals(this.worldPosition))
 			.forEach(exteriorPos -> this.level.updateNeighbourForOutputSignal(exteriorPos, this.getBlockState().getBlock()));
 	}
@@ -763,7 +2092,7 @@ public class JumboFurnaceCoreBlockEntity extends BlockEntity
 	{
 		if (JumboFurnaceUtils.getJumboSmeltingBurnTime(stack) > 0)
 		{
-			stack = ItemHandlerHelper.insertItemStacked(this.fuel, stack, false);
+			stack = JumboFurnaceUtils.insertItemStacked(this.fuel, stack, false);
 		}
 		if (!stack.isEmpty())
 		{
@@ -778,6 +2107,7 @@ public class JumboFurnaceCoreBlockEntity extends BlockEntity
 		{
 			// if we can't put the remainder in the output for some reason, keep it and we can maybe sneak it into player inventory later
 			this.backstock.add(extraRemainder);
+			this.markBackstockChanged();
 			this.outputSimulatorCache = null;
 			this.shouldCheckRecipes = true;
 		}
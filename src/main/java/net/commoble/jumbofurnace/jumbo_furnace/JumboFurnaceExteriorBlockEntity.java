@@ -1,16 +1,17 @@
 package net.commoble.jumbofurnace.jumbo_furnace;
 
-import javax.annotation.Nullable;
-
 import net.commoble.jumbofurnace.JumboFurnace;
 import net.minecraft.core.BlockPos;
-import net.minecraft.core.Direction;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
-import net.neoforged.neoforge.items.IItemHandler;
 
+/**
+ * Exterior blocks of jumbo furnaces used to have block entities that forwarded itemhandlers to the core.
+ * The block now provides those itemhandlers itself, so this type only exists to load the exterior block entities
+ * in older worlds, which remove themselves as soon as they're loaded.
+ */
 public class JumboFurnaceExteriorBlockEntity extends BlockEntity
 {
 	public static JumboFurnaceExteriorBlockEntity create(BlockPos pos, BlockState state)
@@ -23,38 +24,16 @@ public class JumboFurnaceExteriorBlockEntity extends BlockEntity
 		super(type, pos, state);
 	}
 
-	// exterior blocks grant interfacing access to the internal block's itemhandlers
-	@Nullable
-	public IItemHandler getItemHandler(Direction side)
+	@Override
+	public void onLoad()
 	{
-		JumboFurnaceCoreBlockEntity core = this.getCoreTile();
-		if (core != null)
+		super.onLoad();
+		Level level = this.level;
+		if (level != null)
 		{
-			if (side == Direction.UP)
-			{
-				return core.input;
-			}
-			else if (side == Direction.DOWN)
-			{
-				return core.output;
-			}
-			else
-			{
-				return core.fuel;
-			}
+			level.removeBlockEntity(this.worldPosition);
+			// make sure the chunk gets saved without us
+			level.getChunkAt(this.worldPosition).setUnsaved(true);
 		}
-		return null;
-	}
-	
-	@Nullable
-	public JumboFurnaceCoreBlockEntity getCoreTile()
-	{
-		Level level = this.level;
-		BlockPos thisPos = this.worldPosition;
-		BlockState thisState = this.getBlockState();
-		return thisState.getBlock() instanceof JumboFurnaceBlock
-			&& level.getBlockEntity(JumboFurnaceBlock.getCorePos(thisState, thisPos)) instanceof JumboFurnaceCoreBlockEntity core
-				? core
-				: null;
 	}
 }
@@ -1,6 +1,7 @@
 package net.commoble.jumbofurnace.jumbo_furnace;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 import javax.annotation.Nullable;
 
@@ -21,34 +22,46 @@ import net.minecraft.world.level.block.state.BlockState;
 
 public class JumboFurnaceItem extends Item
 {
+	private final Supplier<? extends JumboFurnaceBlock> block;
 
-	public JumboFurnaceItem(Properties properties)
+	public JumboFurnaceItem(Supplier<? extends JumboFurnaceBlock> block, Properties properties)
 	{
 		super(properties);
+		this.block = block;
+	}
+	
+	/**
+	 * @return The block of the furnace this item places
+	 */
+	public JumboFurnaceBlock getBlock()
+	{
+		return this.block.get();
 	}
 
 	@Override
 	public InteractionResult useOn(UseOnContext context)
 	{
-		// get the nine positions around the point of activation, offset by the raytrace normal
+		// place the furnace against the point of activation, offset by the raytrace normal
 		BlockPos againstPos = context.getClickedPos();
 		Direction useNormal = context.getClickedFace();
 		BlockPos placePos = againstPos.relative(useNormal);
-		BlockPos corePos = placePos.relative(useNormal);
+		JumboFurnaceBlock block = this.getBlock();
+		FurnaceTier tier = block.getTier();
+		BlockPos corePos = placePos.relative(useNormal, tier.radius());
 		Level world = context.getLevel();
 		ResourceKey<Level> key = world.dimension();
 		BlockPlaceContext blockContext = new BlockPlaceContext(context);
-		if (MultiBlockHelper.canJumboFurnacePlaceAt(world, corePos, blockContext))
+		if (MultiBlockHelper.canJumboFurnacePlaceAt(world, corePos, tier, blockContext))
 		{
 			if (!world.isClientSide)
 			{
 				BlockState againstState = world.getBlockState(againstPos);
 				@Nullable Player player = context.getPlayer();
-				List<Pair<BlockPos, BlockState>> placementStates = MultiBlockHelper.getStatesForPlacementIfPermitted(key, world, corePos, againstState, player);
+				List<Pair<BlockPos, BlockState>> placementStates = MultiBlockHelper.getStatesForPlacementIfPermitted(key, world, block, corePos, againstState, player);
 				if (!placementStates.isEmpty())
 				{
 
-					placementStates.forEach(pair -> world.setBlockAndUpdate(pair.getFirst(), pair.getSecond()));
+					MultiBlockHelper.setStructureStates(world, placementStates, false);
 					BlockState jumboState = placementStates.get(0).getSecond();
 					SoundType soundtype = jumboState.getSoundType(world, placePos, player);
 					// play the sound to null player because we're not placing on the client
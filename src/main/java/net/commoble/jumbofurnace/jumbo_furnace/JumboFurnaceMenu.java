@@ -1,10 +1,27 @@
 package net.commoble.jumbofurnace.jumbo_furnace;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
 import net.commoble.jumbofurnace.JumboFurnace;
 import net.commoble.jumbofurnace.JumboFurnaceUtils;
+import net.commoble.jumbofurnace.recipes.InFlightRecipe;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.network.RegistryFriendlyByteBuf;
 import net.minecraft.network.chat.Component;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.MenuProvider;
@@ -14,12 +31,15 @@ import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.inventory.AbstractContainerMenu;
 import net.minecraft.world.inventory.ContainerData;
 import net.minecraft.world.inventory.ContainerLevelAccess;
+import net.minecraft.world.inventory.DataSlot;
 import net.minecraft.world.inventory.SimpleContainerData;
 import net.minecraft.world.inventory.Slot;
 import net.minecraft.world.item.ItemStack;
+import net.neoforged.neoforge.fluids.FluidStack;
 import net.neoforged.neoforge.items.IItemHandler;
 import net.neoforged.neoforge.items.ItemStackHandler;
 import net.neoforged.neoforge.items.SlotItemHandler;
+import net.neoforged.neoforge.network.PacketDistributor;
 
 public class JumboFurnaceMenu extends AbstractContainerMenu
 {
@@ -39,39 +59,74 @@ public class JumboFurnaceMenu extends AbstractContainerMenu
 	public static final int HOTBAR_START_Y = 216;
 	public static final int ORTHOFURNACE_SLOT_X = 134;
 	public static final int ORTHOFURNACE_SLOT_Y = 117;
+	public static final int SPEED_UPGRADE_SLOT_X = 152;
+	public static final int SPEED_UPGRADE_SLOT_Y = ORTHOFURNACE_SLOT_Y;
 	
 	// slot counts
 	public static final int SLOT_ROWS = 3;
 	public static final int SLOT_COLUMNS = 3;
 	public static final int BACKPACK_ROWS = 3;
 	public static final int PLAYER_COLUMNS = 9;
-	public static final int INPUT_SLOTS = SLOT_ROWS * SLOT_COLUMNS;
+	/** Number of each of the furnace's input, fuel, and output slots shown at once; larger furnaces have several pages of them **/
+	public static final int PAGE_SLOTS = SLOT_ROWS * SLOT_COLUMNS;
 	public static final int BACKPACK_SLOTS = BACKPACK_ROWS * PLAYER_COLUMNS;
 	public static final int HOTBAR_SLOTS = PLAYER_COLUMNS;
 	
-	// slot indices
+	// slot indices (the rest depend on how many slots the furnace has)
 	public static final int FIRST_INPUT_SLOT = 0;
-	public static final int FIRST_FUEL_SLOT = FIRST_INPUT_SLOT + INPUT_SLOTS;
-	public static final int FIRST_OUTPUT_SLOT = FIRST_FUEL_SLOT + INPUT_SLOTS;
-	public static final int ORTHOFURNACE_SLOT = FIRST_OUTPUT_SLOT + INPUT_SLOTS;
-	public static final int FIRST_HOTBAR_SLOT = ORTHOFURNACE_SLOT + 1;
-	public static final int FIRST_BACKPACK_SLOT = FIRST_HOTBAR_SLOT + HOTBAR_SLOTS;
-	public static final int FIRST_PLAYER_SLOT = FIRST_HOTBAR_SLOT;
-
-	public static final int END_INPUT_SLOTS = FIRST_INPUT_SLOT + INPUT_SLOTS;
-	public static final int END_FUEL_SLOTS = FIRST_FUEL_SLOT + INPUT_SLOTS;
-	public static final int END_PLAYER_SLOTS = FIRST_BACKPACK_SLOT + BACKPACK_SLOTS;
+	
+	// menu button ids
+	public static final int CYCLE_EJECT_BUTTON = 0;
+	public static final int CYCLE_PULL_BUTTON = 1;
+	public static final int TOGGLE_LOCK_BUTTON = 2;
+	public static final int CYCLE_SCHEDULING_BUTTON = 3;
+	public static final int PREVIOUS_PAGE_BUTTON = 4;
+	public static final int NEXT_PAGE_BUTTON = 5;
 	
 	/** Used by the Server to determine whether the player is close enough to use the Container **/
 	private final ContainerLevelAccess usabilityTest;
 	private final ContainerData furnaceData;
 	private final Optional<JumboFurnaceCoreBlockEntity> serverFurnace;
+	private final Player player;
+	// which page of the input, fuel, and output slots is shown, synced to the client
+	private final DataSlot page = DataSlot.standalone();
+	private final int pageCount;
+	
+	// slot indices
+	private final int firstFuelSlot;
+	private final int firstOutputSlot;
+	private final int orthofurnaceSlot;
+	private final int speedUpgradeSlot;
+	private final int firstPlayerSlot;
+	private final int endPlayerSlots;
+	
+	// serverside record of the recipe progress we've sent to the client
+	private final Int2LongMap sentStartTicks = new Int2LongOpenHashMap();
+	private int sentProgressRevision = -1;
+	private long sentAnchorTime = 0L;
+	private boolean sentRunning = false;
+	
+	// clientside recipe progress
+	private final Int2ObjectMap<RecipeProgressPayload.Entry> recipeProgress = new Int2ObjectLinkedOpenHashMap<>();
+	private long progressAnchorTime = 0L;
+	private boolean progressRunning = false;
 
 	/** Container factory for opening the container clientside **/
-	public static JumboFurnaceMenu getClientMenu(int id, Inventory playerInventory)
+	public static JumboFurnaceMenu getClientMenu(int id, Inventory playerInventory, RegistryFriendlyByteBuf buf)
 	{
-		// init client inventory with dummy slots
-		return new JumboFurnaceMenu(id, playerInventory, BlockPos.ZERO, new ItemStackHandler(9), new ItemStackHandler(9), new UninsertableItemStackHandler(9), new ItemStackHandler(1), new SimpleContainerData(4), Optional.empty());
+		// init client inventory with dummy slots, as many as the furnace has
+		int slots = buf.readVarInt();
+		return new JumboFurnaceMenu(id, playerInventory, BlockPos.ZERO, new BufferedItemStackHandler(slots, JumboFurnaceCoreBlockEntity::getBufferSlotCapacity), new ItemStackHandler(slots), new UninsertableItemStackHandler(slots), new ItemStackHandler(1), new ItemStackHandler(1), new SimpleContainerData(9), Optional.empty());
+	}
+	
+	/**
+	 * Writes what the client needs to know to create the menu for a furnace
+	 * @param te The TileEntity of the furnace core
+	 * @param buf The buffer the client will read in getClientMenu
+	 */
+	public static void writeClientData(JumboFurnaceCoreBlockEntity te, RegistryFriendlyByteBuf buf)
+	{
+		buf.writeVarInt(te.input.getSlots());
 	}
 	
 	/**
@@ -82,11 +137,11 @@ public class JumboFurnaceMenu extends AbstractContainerMenu
 	 */
 	public static MenuProvider getServerMenuProvider(JumboFurnaceCoreBlockEntity te, BlockPos activationPos)
 	{
-		return new SimpleMenuProvider((id, playerInventory, serverPlayer) -> new JumboFurnaceMenu(id, playerInventory, activationPos, te.input, te.fuel, te.output, te.multiprocessUpgradeHandler, new JumboFurnaceSyncData(te), Optional.of(te)),
+		return new SimpleMenuProvider((id, playerInventory, serverPlayer) -> new JumboFurnaceMenu(id, playerInventory, activationPos, te.input, te.fuel, te.output, te.multiprocessUpgradeHandler, te.speedUpgradeHandler, new JumboFurnaceSyncData(te), Optional.of(te)),
 			Component.translatable(TITLE));
 	}
 	
-	protected JumboFurnaceMenu(int id, Inventory playerInventory, BlockPos pos, IItemHandler inputs, IItemHandler fuel, IItemHandler outputs, IItemHandler multiprocessUpgrades, ContainerData furnaceData, Optional<JumboFurnaceCoreBlockEntity> serverFurnace)
+	protected JumboFurnaceMenu(int id, Inventory playerInventory, BlockPos pos, IItemHandler inputs, IItemHandler fuel, IItemHandler outputs, IItemHandler multiprocessUpgrades, IItemHandler speedUpgrades, ContainerData furnaceData, Optional<JumboFurnaceCoreBlockEntity> serverFurnace)
 	{
 		super(JumboFurnace.get().jumboFurnaceMenuType.get(), id);
 		
@@ -94,46 +149,72 @@ public class JumboFurnaceMenu extends AbstractContainerMenu
 		this.usabilityTest = ContainerLevelAccess.create(player.level(), pos);
 		this.furnaceData = furnaceData;
 		this.serverFurnace = serverFurnace;
+		this.player = player;
+		
+		// every page's slots are added, and the slots of the pages that aren't shown are inactive
+		int slots = inputs.getSlots();
+		this.pageCount = Math.max(1, (slots + PAGE_SLOTS - 1) / PAGE_SLOTS);
+		this.firstFuelSlot = FIRST_INPUT_SLOT + slots;
+		this.firstOutputSlot = this.firstFuelSlot + slots;
+		this.orthofurnaceSlot = this.firstOutputSlot + slots;
+		this.speedUpgradeSlot = this.orthofurnaceSlot + 1;
+		this.firstPlayerSlot = this.speedUpgradeSlot + 1;
+		this.endPlayerSlots = this.firstPlayerSlot + HOTBAR_SLOTS + BACKPACK_SLOTS;
 		
 		// add input slots
-		for (int row=0; row < SLOT_ROWS; row++)
+		for (int index=0; index < slots; index++)
 		{
-			int y = INPUT_START_Y + SLOT_SPACING*row;
-			for (int column=0; column < SLOT_COLUMNS; column++)
+			int slotIndex = index;
+			int x = INPUT_START_X + SLOT_SPACING * getPageColumn(index);
+			int y = INPUT_START_Y + SLOT_SPACING * getPageRow(index);
+			this.addSlot(new SlotItemHandler(inputs, index, x, y)
 			{
-				int x = INPUT_START_X + SLOT_SPACING*column;
-				int index = row * SLOT_COLUMNS + column;
-				this.addSlot(new SlotItemHandler(inputs, index, x, y));
-			}
+				@Override
+				public boolean isActive()
+				{
+					return JumboFurnaceMenu.this.isOnCurrentPage(slotIndex);
+				}
+			});
 		}
 		
 		// add fuel slots
-		for (int row=0; row < SLOT_ROWS; row++)
+		for (int index=0; index < slots; index++)
 		{
-			int y = FUEL_START_Y + SLOT_SPACING*row;
-			for (int column=0; column < SLOT_COLUMNS; column++)
+			int slotIndex = index;
+			int x = FUEL_START_X + SLOT_SPACING * getPageColumn(index);
+			int y = FUEL_START_Y + SLOT_SPACING * getPageRow(index);
+			this.addSlot(new JumboFurnaceFuelSlot(fuel, index, x, y)
 			{
-				int x = FUEL_START_X + SLOT_SPACING*column;
-				int index = row * SLOT_COLUMNS + column;
-				this.addSlot(new JumboFurnaceFuelSlot(fuel, index, x, y));
-			}
+				@Override
+				public boolean isActive()
+				{
+					return JumboFurnaceMenu.this.isOnCurrentPage(slotIndex);
+				}
+			});
 		}
 		
 		// add output slots
-		for (int row=0; row < SLOT_ROWS; row++)
+		for (int index=0; index < slots; index++)
 		{
-			int y = OUTPUT_START_Y + SLOT_SPACING*row;
-			for (int column=0; column < SLOT_COLUMNS; column++)
+			int slotIndex = index;
+			int x = OUTPUT_START_X + SLOT_SPACING * getPageColumn(index);
+			int y = OUTPUT_START_Y + SLOT_SPACING * getPageRow(index);
+			this.addSlot(new JumboFurnaceOutputSlot(player, outputs, index, x, y)
 			{
-				int x = OUTPUT_START_X + SLOT_SPACING*column;
-				int index = row * SLOT_COLUMNS + column;
-				this.addSlot(new JumboFurnaceOutputSlot(player, outputs, index, x, y));
-			}
+				@Override
+				public boolean isActive()
+				{
+					return JumboFurnaceMenu.this.isOnCurrentPage(slotIndex);
+				}
+			});
 		}
 		
 		// add multiprocess upgrade slot
 		this.addSlot(new MultiprocessUpgradeHandler.MultiprocessUpgradeSlotHandler(multiprocessUpgrades, 0, ORTHOFURNACE_SLOT_X, ORTHOFURNACE_SLOT_Y));
 		
+		// add speed upgrade slot
+		this.addSlot(new SpeedUpgradeHandler.SpeedUpgradeSlotHandler(speedUpgrades, 0, SPEED_UPGRADE_SLOT_X, SPEED_UPGRADE_SLOT_Y));
+		
 		// add hotbar slots
 		for (int hotbarSlot = 0; hotbarSlot < PLAYER_COLUMNS; hotbarSlot++)
 		{
@@ -154,6 +235,181 @@ public class JumboFurnaceMenu extends AbstractContainerMenu
 		}
 
 		this.addDataSlots(furnaceData);
+		this.addDataSlot(this.page);
+	}
+	
+	private static int getPageRow(int index)
+	{
+		return (index % PAGE_SLOTS) / SLOT_COLUMNS;
+	}
+	
+	private static int getPageColumn(int index)
+	{
+		return index % SLOT_COLUMNS;
+	}
+	
+	private boolean isOnCurrentPage(int index)
+	{
+		return index / PAGE_SLOTS == this.getPage();
+	}
+	
+	/**
+	 * @return Which page of the furnace's input, fuel, and output slots is shown, starting at 0
+	 */
+	public int getPage()
+	{
+		return this.page.get();
+	}
+	
+	/**
+	 * @return How many pages of input, fuel, and output slots the furnace has
+	 */
+	public int getPageCount()
+	{
+		return this.pageCount;
+	}
+
+	@Override
+	public void broadcastChanges()
+	{
+		super.broadcastChanges();
+		if (this.player instanceof ServerPlayer serverPlayer)
+		{
+			this.serverFurnace.ifPresent(furnace -> this.sendRecipeProgress(furnace, serverPlayer));
+		}
+	}
+	
+	/**
+	 * Sends the inflight recipes that have changed since we last sent them.
+	 * Recipe progress is derived from start ticks, so this only needs to happen when recipes start, complete, or stall.
+	 */
+	private void sendRecipeProgress(JumboFurnaceCoreBlockEntity furnace, ServerPlayer serverPlayer)
+	{
+		int revision = furnace.getProgressRevision();
+		// recipes only progress on the client while the furnace can heat all of them
+		boolean running = furnace.isHeatingInFlightRecipes();
+		if (revision == this.sentProgressRevision && running == this.sentRunning)
+		{
+			return;
+		}
+		boolean reset = this.sentProgressRevision < 0;
+		this.sentProgressRevision = revision;
+		if (reset)
+		{
+			this.sentStartTicks.clear();
+		}
+		
+		List<RecipeProgressPayload.Entry> updated = new ArrayList<>();
+		IntSet remainingIds = new IntOpenHashSet();
+		for (InFlightRecipe recipe : furnace.inFlightRecipes)
+		{
+			int id = recipe.id();
+			remainingIds.add(id);
+			long startTick = recipe.startTick();
+			if (!this.sentStartTicks.containsKey(id) || this.sentStartTicks.get(id) != startTick)
+			{
+				this.sentStartTicks.put(id, startTick);
+				List<ItemStack> results = recipe.recipe().results();
+				ItemStack icon = results.isEmpty() ? ItemStack.EMPTY : results.get(0);
+				updated.add(new RecipeProgressPayload.Entry(id, startTick, recipe.duration(), recipe.count(), icon));
+			}
+		}
+		IntList removed = new IntArrayList();
+		for (int id : this.sentStartTicks.keySet())
+		{
+			if (!remainingIds.contains(id))
+			{
+				removed.add(id);
+			}
+		}
+		for (int i=0; i<removed.size(); i++)
+		{
+			this.sentStartTicks.remove(removed.getInt(i));
+		}
+		
+		long anchorTime = furnace.anchorTime;
+		if (reset || running != this.sentRunning || anchorTime != this.sentAnchorTime || !updated.isEmpty() || !removed.isEmpty())
+		{
+			this.sentRunning = running;
+			this.sentAnchorTime = anchorTime;
+			PacketDistributor.sendToPlayer(serverPlayer, new RecipeProgressPayload(this.containerId, reset, anchorTime, running, updated, removed));
+		}
+	}
+	
+	/**
+	 * Applies recipe progress sent from the server, called on the client
+	 * @param payload Changes to the furnace's inflight recipes
+	 */
+	public void handleRecipeProgress(RecipeProgressPayload payload)
+	{
+		if (payload.reset())
+		{
+			this.recipeProgress.clear();
+		}
+		for (RecipeProgressPayload.Entry entry : payload.updated())
+		{
+			this.recipeProgress.put(entry.id(), entry);
+		}
+		for (int i=0; i<payload.removed().size(); i++)
+		{
+			this.recipeProgress.remove(payload.removed().getInt(i));
+		}
+		this.progressAnchorTime = payload.anchorTime();
+		this.progressRunning = payload.running();
+	}
+	
+	/**
+	 * @return Inflight recipes known to the client, in the order they started
+	 */
+	public Collection<RecipeProgressPayload.Entry> getRecipeProgress()
+	{
+		return this.recipeProgress.values();
+	}
+	
+	/**
+	 * @param entry An inflight recipe known to the client
+	 * @param gameTime The client's current game time
+	 * @return Progress of the recipe from 0 to 1
+	 */
+	public float getRecipeProgress(RecipeProgressPayload.Entry entry, long gameTime)
+	{
+		return entry.getProgress(gameTime, this.progressAnchorTime, this.progressRunning);
+	}
+
+	@Override
+	public boolean clickMenuButton(Player player, int id)
+	{
+		if (id == CYCLE_EJECT_BUTTON)
+		{
+			this.serverFurnace.ifPresent(JumboFurnaceCoreBlockEntity::cycleEjectDirection);
+			return true;
+		}
+		if (id == CYCLE_PULL_BUTTON)
+		{
+			this.serverFurnace.ifPresent(JumboFurnaceCoreBlockEntity::cyclePullDirection);
+			return true;
+		}
+		if (id == TOGGLE_LOCK_BUTTON)
+		{
+			this.serverFurnace.ifPresent(JumboFurnaceCoreBlockEntity::toggleRecipeLock);
+			return true;
+		}
+		if (id == CYCLE_SCHEDULING_BUTTON)
+		{
+			this.serverFurnace.ifPresent(JumboFurnaceCoreBlockEntity::cycleSchedulingPolicy);
+			return true;
+		}
+		if (id == PREVIOUS_PAGE_BUTTON)
+		{
+			this.page.set((this.getPage() + this.pageCount - 1) % this.pageCount);
+			return true;
+		}
+		if (id == NEXT_PAGE_BUTTON)
+		{
+			this.page.set((this.getPage() + 1) % this.pageCount);
+			return true;
+		}
+		return super.clickMenuButton(player, id);
 	}
 
 	@Override
@@ -161,7 +417,7 @@ public class JumboFurnaceMenu extends AbstractContainerMenu
 	{
 		if (player instanceof ServerPlayer serverPlayer)
 		{
-			ItemStack finalUpgradeStack = this.getSlot(ORTHOFURNACE_SLOT).getItem();
+			ItemStack finalUpgradeStack = this.getSlot(this.orthofurnaceSlot).getItem();
 			JumboFurnace.get().upgradeJumboFurnaceTrigger.get().test(serverPlayer, finalUpgradeStack);
 		}
 		
@@ -172,11 +428,22 @@ public class JumboFurnaceMenu extends AbstractContainerMenu
 	@Override
 	public boolean stillValid(Player player)
 	{
-		return stillValid(this.usabilityTest, player, JumboFurnace.get().jumboFurnaceBlock.get());
+		// each size of furnace is its own block, so check for whichever one we were opened from
+		return this.serverFurnace
+			.map(furnace -> stillValid(this.usabilityTest, player, furnace.getBlockState().getBlock()))
+			.orElse(true);
 	}
 
 	@Override
 	public ItemStack quickMoveStack(Player player, int index)
+	{
+		// moving a stack can change several of the furnace's slots, so have the furnace notify its neighbors once afterward
+		return this.serverFurnace
+			.map(furnace -> furnace.bulkTransfer(() -> this.doQuickMoveStack(player, index)))
+			.orElseGet(() -> this.doQuickMoveStack(player, index));
+	}
+	
+	private ItemStack doQuickMoveStack(Player player, int index)
 	{
 		ItemStack slotStackCopy = ItemStack.EMPTY;
 		Slot slot = this.slots.get(index);
@@ -187,9 +454,9 @@ public class JumboFurnaceMenu extends AbstractContainerMenu
 			slotStackCopy = stackInSlot.copy();
 			
 			// if this is an input/fuel/output/upgrade slot, try to put the item in the player slots
-			if (index < FIRST_PLAYER_SLOT)
+			if (index < this.firstPlayerSlot)
 			{
-				if (!this.moveItemStackTo(stackInSlot, FIRST_PLAYER_SLOT, END_PLAYER_SLOTS, true))
+				if (!this.moveItemStackTo(stackInSlot, this.firstPlayerSlot, this.endPlayerSlots, true))
 				{
 					return ItemStack.EMPTY;
 				}
@@ -199,12 +466,23 @@ public class JumboFurnaceMenu extends AbstractContainerMenu
 			{
 				// note: mergeItemStack returns true if any slot contents were changed
 				// if this is an upgrade item, try to put it in the upgrade slot first
-				if (stackInSlot.is(JumboFurnace.MULTIPROCESSING_UPGRADE_TAG))
+				if (MultiprocessUpgrade.isUpgrade(stackInSlot))
 				{
 					// if we altered any input slots
-					if (this.moveItemStackTo(stackInSlot, ORTHOFURNACE_SLOT, ORTHOFURNACE_SLOT+1, false))
+					if (this.moveItemStackTo(stackInSlot, this.orthofurnaceSlot, this.orthofurnaceSlot+1, false))
+					{
+						this.serverFurnace.ifPresent(JumboFurnaceCoreBlockEntity::markUpgradeInventoryChanged);
+					}
+					else
+					{
+						return ItemStack.EMPTY;
+					}
+				}
+				if (SpeedUpgrade.isUpgrade(stackInSlot))
+				{
+					if (this.moveItemStackTo(stackInSlot, this.speedUpgradeSlot, this.speedUpgradeSlot+1, false))
 					{
-						this.serverFurnace.ifPresent(JumboFurnaceCoreBlockEntity::markInputInventoryChanged);
+						this.serverFurnace.ifPresent(JumboFurnaceCoreBlockEntity::markUpgradeInventoryChanged);
 					}
 					else
 					{
@@ -215,7 +493,7 @@ public class JumboFurnaceMenu extends AbstractContainerMenu
 				if (JumboFurnaceUtils.getJumboSmeltingBurnTime(stackInSlot) > 0)
 				{
 					// if we changed any fuel item slots
-					if (this.moveItemStackTo(stackInSlot, FIRST_FUEL_SLOT, END_FUEL_SLOTS, false))
+					if (this.moveItemStackTo(stackInSlot, this.firstFuelSlot, this.firstOutputSlot, false))
 					{
 						this.serverFurnace.ifPresent(JumboFurnaceCoreBlockEntity::markFuelInventoryChanged);
 					}
@@ -225,7 +503,7 @@ public class JumboFurnaceMenu extends AbstractContainerMenu
 					}
 				}
 				// otherwise, try to put it in the input slots
-				if (this.moveItemStackTo(stackInSlot, FIRST_INPUT_SLOT, END_INPUT_SLOTS, false))
+				if (this.moveItemStackTo(stackInSlot, FIRST_INPUT_SLOT, this.firstFuelSlot, false))
 				{
 					this.serverFurnace.ifPresent(JumboFurnaceCoreBlockEntity::markInputInventoryChanged);
 				}
@@ -241,7 +519,9 @@ public class JumboFurnaceMenu extends AbstractContainerMenu
 			}
 			else
 			{
-				slot.setChanged();
+				// set the stack back so itemhandler slots know their count changed
+				// (buffered slots can hold more than we can move at once, so they often aren't emptied)
+				slot.set(stackInSlot);
 			}
 			
 			if (stackInSlot.getCount() == slotStackCopy.getCount())
@@ -279,6 +559,53 @@ public class JumboFurnaceMenu extends AbstractContainerMenu
 //		return cookTimeForRecipe != 0 && cookProgress != 0 ? cookProgress * 24 / cookTimeForRecipe : 0;
 //	}
 
+	/**
+	 * @return The side of the furnace that output is pushed out of, or null if output isn't pushed
+	 */
+	@Nullable
+	public Direction getEjectDirection()
+	{
+		return JumboFurnaceSyncData.decodeDirection(this.furnaceData.get(3));
+	}
+	
+	/**
+	 * @return The side of the furnace that inputs are pulled in from, or null if inputs aren't pulled
+	 */
+	@Nullable
+	public Direction getPullDirection()
+	{
+		return JumboFurnaceSyncData.decodeDirection(this.furnaceData.get(4));
+	}
+
+	/**
+	 * @return Whether the furnace is locked to one recipe
+	 */
+	public boolean isRecipeLocked()
+	{
+		return this.furnaceData.get(7) != 0;
+	}
+	
+	/**
+	 * @return The policy deciding which recipes the furnace starts and heats first
+	 */
+	public SchedulingPolicy getSchedulingPolicy()
+	{
+		SchedulingPolicy[] policies = SchedulingPolicy.values();
+		int index = this.furnaceData.get(8);
+		return index >= 0 && index < policies.length ? policies[index] : SchedulingPolicy.FIFO;
+	}
+	
+	/**
+	 * @return The fluid fuel in the furnace's fuel tank
+	 */
+	public FluidStack getFuelTankFluid()
+	{
+		int amount = this.furnaceData.get(6);
+		return amount <= 0
+			? FluidStack.EMPTY
+			: new FluidStack(BuiltInRegistries.FLUID.byId(this.furnaceData.get(5)), amount);
+	}
+
 	public int getBurnLeftScaled()
 	{
 		int totalBurnTime = this.getItemBurnedValue();
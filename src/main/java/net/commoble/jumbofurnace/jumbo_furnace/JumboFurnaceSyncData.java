@@ -1,5 +1,9 @@
 package net.commoble.jumbofurnace.jumbo_furnace;
 
+import javax.annotation.Nullable;
+
+import net.minecraft.core.Direction;
+import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.world.inventory.ContainerData;
 
 public class JumboFurnaceSyncData implements ContainerData
@@ -17,11 +21,23 @@ public class JumboFurnaceSyncData implements ContainerData
 		switch (index)
 		{
 			case 0:
-				return this.te.burnTimeRemaining;
+				return this.te.getBurnTimeRemaining();
 			case 1:
 				return this.te.lastItemBurnedValue;
 			case 2:
-				return this.te.inFlightRecipes.size();
+				return this.te.getInFlightCraftCount();
+			case 3:
+				return encodeDirection(this.te.getEjectDirection());
+			case 4:
+				return encodeDirection(this.te.getPullDirection());
+			case 5:
+				return BuiltInRegistries.FLUID.getId(this.te.fuelTank.getFluid().getFluid());
+			case 6:
+				return this.te.fuelTank.getFluidAmount();
+			case 7:
+				return this.te.getRecipeLock() == null ? 0 : 1;
+			case 8:
+				return this.te.getSchedulingPolicy().ordinal();
 			default:
 				return 0;
 		}
@@ -36,7 +52,21 @@ public class JumboFurnaceSyncData implements ContainerData
 	@Override
 	public int getCount()
 	{
-		return 3;
+		return 9;
+	}
+	
+	public static int encodeDirection(@Nullable Direction direction)
+	{
+		return direction == null ? 0 : direction.ordinal() + 1;
+	}
+	
+	@Nullable
+	public static Direction decodeDirection(int value)
+	{
+		Direction[] directions = Direction.values();
+		return value > 0 && value <= directions.length
+			? directions[value-1]
+			: null;
 	}
 
 }
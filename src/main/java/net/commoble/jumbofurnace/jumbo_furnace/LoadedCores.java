@@ -0,0 +1,120 @@
+package net.commoble.jumbofurnace.jumbo_furnace;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+
+/**
+ * Tracks the jumbo furnace cores that are currently loaded in each level,
+ * so exterior blocks can find their core without looking up block entities in the world.
+ * Cores register themselves when loaded and unregister when removed or unloaded,
+ * and each level's cores are forgotten when the level unloads (which can happen without its cores being removed).
+ */
+public final class LoadedCores
+{
+	// levels are only ever accessed from their own thread, but client and server levels may be accessed at the same time
+	// (cores hold their level strongly, so this can't be a weak map; levels are removed when they unload instead)
+	private static final Map<Level, Long2ObjectMap<JumboFurnaceCoreBlockEntity>> CORES = new ConcurrentHashMap<>();
+	// incremented whenever cores are added or removed or their cluster links change, so clusters know to find their members again
+	private static final AtomicInteger REVISION = new AtomicInteger();
+	
+	private LoadedCores() {}
+	
+	/**
+	 * Gets the loaded core at a position, without loading any chunks
+	 * @param level The level the core is in
+	 * @param corePos The position of the core
+	 * @return The core, or null if there is no loaded core there
+	 */
+	@Nullable
+	public static JumboFurnaceCoreBlockEntity get(Level level, BlockPos corePos)
+	{
+		Long2ObjectMap<JumboFurnaceCoreBlockEntity> cores = CORES.get(level);
+		JumboFurnaceCoreBlockEntity core = cores == null ? null : cores.get(corePos.asLong());
+		if (core != null && !core.isRemoved())
+		{
+			return core;
+		}
+		// cores aren't registered until the tick after they're added to the world,
+		// so fall back to looking up the block entity, but only if that won't load a chunk
+		return level.isLoaded(corePos) && level.getBlockEntity(corePos) instanceof JumboFurnaceCoreBlockEntity loadedCore
+			? loadedCore
+			: null;
+	}
+	
+	static void add(JumboFurnaceCoreBlockEntity core)
+	{
+		Level level = core.getLevel();
+		if (level != null)
+		{
+			CORES.computeIfAbsent(level, l -> new Long2ObjectOpenHashMap<>()).put(core.getBlockPos().asLong(), core);
+			REVISION.incrementAndGet();
+			invalidateCapabilities(level, core);
+		}
+	}
+	
+	static void remove(JumboFurnaceCoreBlockEntity core)
+	{
+		Level level = core.getLevel();
+		if (level != null)
+		{
+			Long2ObjectMap<JumboFurnaceCoreBlockEntity> cores = CORES.get(level);
+			// don't remove a different core that has replaced this one
+			if (cores != null && cores.remove(core.getBlockPos().asLong(), core))
+			{
+				REVISION.incrementAndGet();
+				invalidateCapabilities(level, core);
+			}
+		}
+	}
+	
+	/**
+	 * Forgets every core in a level, called when the level unloads
+	 * @param level The level
+	 */
+	public static void clear(Level level)
+	{
+		if (CORES.remove(level) != null)
+		{
+			REVISION.incrementAndGet();
+		}
+	}
+	
+	/**
+	 * @return A number that changes whenever cores are added or removed or their cluster links change
+	 */
+	public static int getRevision()
+	{
+		return REVISION.get();
+	}
+	
+	/**
+	 * Called when a core is linked to or unlinked from its cluster
+	 * @param core The core
+	 */
+	static void onClusterLinkChanged(JumboFurnaceCoreBlockEntity core)
+	{
+		REVISION.incrementAndGet();
+		Level level = core.getLevel();
+		if (level != null)
+		{
+			invalidateCapabilities(level, core);
+		}
+	}
+	
+	// exterior blocks' itemhandlers come from the core, so anything caching them needs to look them up again
+	private static void invalidateCapabilities(Level level, JumboFurnaceCoreBlockEntity core)
+	{
+		for (BlockPos pos : MultiBlockHelper.getCubePositionsAround(core.getBlockPos(), core.getTier()))
+		{
+			level.invalidateCapabilities(pos);
+		}
+	}
+}
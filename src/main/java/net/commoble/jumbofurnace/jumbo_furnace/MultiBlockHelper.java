@@ -1,21 +1,32 @@
 package net.commoble.jumbofurnace.jumbo_furnace;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import javax.annotation.Nullable;
+
 import com.google.common.collect.ImmutableList;
 import com.mojang.datafixers.util.Pair;
 
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.commoble.jumbofurnace.JumboFurnace;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.item.context.BlockPlaceContext;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.LevelEvent;
+import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.gameevent.GameEvent;
+import net.minecraft.world.level.redstone.NeighborUpdater;
 import net.minecraft.world.phys.AABB;
 import net.neoforged.neoforge.common.NeoForge;
 import net.neoforged.neoforge.common.util.BlockSnapshot;
@@ -24,6 +35,12 @@ import net.neoforged.neoforge.event.level.BlockEvent.EntityMultiPlaceEvent;
 public class MultiBlockHelper
 {
 	public static final List<Pair<BlockPos, BlockState>> NO_SNAPSHOTS = ImmutableList.of();
+	// only the smallest furnaces form from placed blocks, larger furnaces are placed from their items
+	private static final FurnaceTier FORMED_TIER = FurnaceTier.JUMBO;
+	// radius and width of the area that furnaces using a placed block can occupy
+	private static final int SCAN_RADIUS = FORMED_TIER.radius() * 2;
+	private static final int SCAN_SIZE = SCAN_RADIUS * 2 + 1;
+	
 	/**
 	 * Scans the area around the placement position to see if a new jumbo furnace can be formed
 	 * If it can, returns a list of pairs of
@@ -35,12 +52,68 @@ public class MultiBlockHelper
 	 */
 	public static List<Pair<BlockPos, BlockState>> getJumboFurnaceStates(ResourceKey<Level> key, LevelAccessor world, BlockPos placePos, BlockState againstState, Entity entity)
 	{
-		return get3x3CubeAround(placePos)
-			.filter(pos -> canJumboFurnaceFormAt(world, pos, placePos))
-			.map(pos -> getStatesForPlacementIfPermitted(key, world, pos, againstState, entity))
-			.filter(list -> !list.isEmpty())
-			.findFirst()
-			.orElse(ImmutableList.of());
+		// any core that could use the placed block is within a furnace radius of it,
+		// so every block any such furnace could use is within twice that of it
+		// read that area once, and count furnaceable blocks in it with 3D prefix sums,
+		// so each candidate core can be checked with a few array lookups
+		int[][][] sums = new int[SCAN_SIZE+1][SCAN_SIZE+1][SCAN_SIZE+1];
+		BlockPos.MutableBlockPos mutaPos = new BlockPos.MutableBlockPos();
+		for (int x=0; x<SCAN_SIZE; x++)
+		{
+			for (int y=0; y<SCAN_SIZE; y++)
+			{
+				for (int z=0; z<SCAN_SIZE; z++)
+				{
+					boolean furnaceable = (x == SCAN_RADIUS && y == SCAN_RADIUS && z == SCAN_RADIUS)
+						|| world.getBlockState(mutaPos.setWithOffset(placePos, x - SCAN_RADIUS, y - SCAN_RADIUS, z - SCAN_RADIUS)).is(JumboFurnace.JUMBOFURNACEABLE_TAG);
+					sums[x+1][y+1][z+1] = (furnaceable ? 1 : 0)
+						+ sums[x][y+1][z+1] + sums[x+1][y][z+1] + sums[x+1][y+1][z]
+						- sums[x][y][z+1] - sums[x][y+1][z] - sums[x+1][y][z]
+						+ sums[x][y][z];
+				}
+			}
+		}
+		
+		// check candidate cores in the same order as getCubeAround (x, then y, then z),
+		// and only build the furnace states for cores that have room, until one is permitted
+		int radius = FORMED_TIER.radius();
+		int volume = FORMED_TIER.volume();
+		JumboFurnaceBlock block = JumboFurnace.get().jumboFurnaceBlock.get();
+		for (int z=-radius; z<=radius; z++)
+		{
+			for (int y=-radius; y<=radius; y++)
+			{
+				for (int x=-radius; x<=radius; x++)
+				{
+					// the cube around this core spans [offset, offset+SIZE) in the grid
+					int minX = x + radius;
+					int minY = y + radius;
+					int minZ = z + radius;
+					if (countInBox(sums, minX, minY, minZ) == volume)
+					{
+						List<Pair<BlockPos, BlockState>> pairs = getStatesForPlacementIfPermitted(key, world, block, placePos.offset(x,y,z), againstState, entity);
+						if (!pairs.isEmpty())
+						{
+							return pairs;
+						}
+					}
+				}
+			}
+		}
+		return NO_SNAPSHOTS;
+	}
+	
+	// number of marked grid cells in the furnace-sized box starting at the given grid coordinates
+	private static int countInBox(int[][][] sums, int minX, int minY, int minZ)
+	{
+		int size = FORMED_TIER.size();
+		int maxX = minX + size;
+		int maxY = minY + size;
+		int maxZ = minZ + size;
+		return sums[maxX][maxY][maxZ]
+			- sums[minX][maxY][maxZ] - sums[maxX][minY][maxZ] - sums[maxX][maxY][minZ]
+			+ sums[minX][minY][maxZ] + sums[minX][maxY][minZ] + sums[maxX][minY][minZ]
+			- sums[minX][minY][minZ];
 	}
 	
 	/**
@@ -52,7 +125,7 @@ public class MultiBlockHelper
 	 */
 	public static boolean canJumboFurnaceFormAt(LevelAccessor world, BlockPos corePos, BlockPos placePos)
 	{
-		return get3x3CubeAround(corePos)
+		return getCubeAround(corePos, FORMED_TIER)
 			.allMatch(pos -> pos.equals(placePos) || world.getBlockState(pos).is(JumboFurnace.JUMBOFURNACEABLE_TAG));
 	}
 	
@@ -60,27 +133,53 @@ public class MultiBlockHelper
 	 * Returns whether the world contains sufficiently empty space for a jumbo furnace around the given core position
 	 * @param world
 	 * @param corePos
-	 * @return true if the 3x3 cube around the position contains replaceable blockstates (air, plants, etc)
+	 * @param tier The size of the furnace
+	 * @return true if the cube around the position contains replaceable blockstates (air, plants, etc)
 	 */
-	public static boolean canJumboFurnacePlaceAt(LevelAccessor world, BlockPos corePos, BlockPlaceContext useContext)
+	public static boolean canJumboFurnacePlaceAt(LevelAccessor world, BlockPos corePos, FurnaceTier tier, BlockPlaceContext useContext)
 	{
-		// the two-blockpos constructor for AABB is [inclusive, exclusive)
-		// so we have to add 2 to the second arg
-		boolean noEntitiesInArea = world.getEntitiesOfClass(LivingEntity.class, AABB.encapsulatingFullBlocks(corePos.offset(-1,-1,-1), corePos.offset(2,2,2))).isEmpty();
-		return noEntitiesInArea && get3x3CubeAround(corePos)
+		boolean noEntitiesInArea = world.getEntitiesOfClass(LivingEntity.class, AABB.encapsulatingFullBlocks(getMinCorner(corePos, tier), getMaxCorner(corePos, tier))).isEmpty();
+		return noEntitiesInArea && getCubeAround(corePos, tier)
 			.allMatch(pos ->
 				world.getBlockState(pos)
 				.canBeReplaced(useContext));
 	}
 	
-	public static Stream<BlockPos> get3x3CubeAround(BlockPos pos)
+	/**
+	 * @param corePos The position of a furnace's core
+	 * @param tier The size of the furnace
+	 * @return The positions of every block of a furnace around that core, in x, then y, then z order
+	 */
+	public static Stream<BlockPos> getCubeAround(BlockPos corePos, FurnaceTier tier)
+	{
+		return BlockPos.betweenClosedStream(getMinCorner(corePos, tier), getMaxCorner(corePos, tier));
+	}
+	
+	/**
+	 * @param corePos The position of a furnace's core
+	 * @param tier The size of the furnace
+	 * @return The positions of every block of a furnace around that core, as a mutable position that changes each iteration
+	 */
+	public static Iterable<BlockPos> getCubePositionsAround(BlockPos corePos, FurnaceTier tier)
+	{
+		return BlockPos.betweenClosed(getMinCorner(corePos, tier), getMaxCorner(corePos, tier));
+	}
+	
+	public static BlockPos getMinCorner(BlockPos corePos, FurnaceTier tier)
+	{
+		int radius = tier.radius();
+		return corePos.offset(-radius, -radius, -radius);
+	}
+	
+	public static BlockPos getMaxCorner(BlockPos corePos, FurnaceTier tier)
 	{
-		return BlockPos.betweenClosedStream(pos.offset(-1, -1, -1), pos.offset(1,1,1));
+		int radius = tier.radius();
+		return corePos.offset(radius, radius, radius);
 	}
 	
-	public static List<Pair<BlockPos, BlockState>> getStatesForPlacementIfPermitted(ResourceKey<Level> key, LevelAccessor world, BlockPos corePos, BlockState againstState, Entity placer)
+	public static List<Pair<BlockPos, BlockState>> getStatesForPlacementIfPermitted(ResourceKey<Level> key, LevelAccessor world, JumboFurnaceBlock block, BlockPos corePos, BlockState againstState, Entity placer)
 	{
-		List<Pair<BlockPos, BlockState>> pairs = JumboFurnace.get().jumboFurnaceBlock.get().getStatesForFurnace(corePos);
+		List<Pair<BlockPos, BlockState>> pairs = block.getStatesForFurnace(corePos);
 		return doesPlayerHavePermissionToMakeJumboFurnace(key, world, pairs, againstState, placer)
 			? pairs
 			: NO_SNAPSHOTS;
@@ -95,4 +194,87 @@ public class MultiBlockHelper
 		NeoForge.EVENT_BUS.post(event);
 		return !event.isCanceled();
 	}
+	
+	/**
+	 * Sets the blockstates of an entire structure at once.
+	 * Blocks are set without updating their neighbors, then each neighbor outside the structure is updated once afterward,
+	 * rather than every block updating every other block in the structure as they're set one at a time.
+	 * @param level The level to set blocks in
+	 * @param pairs Positions and the states to set them to
+	 * @param isMoving If true, the previous blocks are removed as if by a piston, which tells jumbo furnace blocks not to dismantle the rest of their furnace
+	 */
+	public static void setStructureStates(Level level, List<Pair<BlockPos, BlockState>> pairs, boolean isMoving)
+	{
+		int flags = Block.UPDATE_CLIENTS | Block.UPDATE_KNOWN_SHAPE | (isMoving ? Block.UPDATE_MOVE_BY_PISTON : 0);
+		int size = pairs.size();
+		LongSet structure = new LongOpenHashSet(size);
+		for (Pair<BlockPos, BlockState> pair : pairs)
+		{
+			structure.add(pair.getFirst().asLong());
+		}
+		List<BlockState> oldStates = new ArrayList<>(size);
+		for (Pair<BlockPos, BlockState> pair : pairs)
+		{
+			BlockPos pos = pair.getFirst();
+			oldStates.add(level.getBlockState(pos));
+			level.setBlock(pos, pair.getSecond(), flags);
+		}
+		
+		// now do the neighbor updates that setBlock would have done, skipping blocks inside the structure
+		for (int i=0; i<size; i++)
+		{
+			BlockPos pos = pairs.get(i).getFirst();
+			BlockState oldState = oldStates.get(i);
+			BlockState newState = level.getBlockState(pos);
+			if (oldState == newState)
+			{
+				continue;
+			}
+			for (Direction direction : NeighborUpdater.UPDATE_ORDER)
+			{
+				BlockPos neighborPos = pos.relative(direction);
+				if (!structure.contains(neighborPos.asLong()))
+				{
+					level.neighborChanged(neighborPos, oldState.getBlock(), pos);
+					level.neighborShapeChanged(direction.getOpposite(), newState, neighborPos, pos, Block.UPDATE_CLIENTS, Block.UPDATE_LIMIT - 1);
+				}
+			}
+			if (newState.hasAnalogOutputSignal())
+			{
+				level.updateNeighbourForOutputSignal(pos, newState.getBlock());
+			}
+		}
+	}
+	
+	/**
+	 * Removes the blocks of a jumbo furnace without letting them dismantle each other
+	 * @param level The level the furnace is in
+	 * @param block The furnace's block
+	 * @param corePos The position of the furnace's core
+	 * @param exceptPos A position to leave alone (e.g. a block that is already being removed), or null
+	 * @param destroy If true, the blocks drop their loot and make breaking particles as if broken
+	 */
+	public static void removeJumboFurnace(Level level, JumboFurnaceBlock block, BlockPos corePos, @Nullable BlockPos exceptPos, boolean destroy)
+	{
+		FurnaceTier tier = block.getTier();
+		List<Pair<BlockPos, BlockState>> pairs = new ArrayList<>(tier.volume());
+		for (BlockPos pos : getCubePositionsAround(corePos, tier))
+		{
+			BlockState state = level.getBlockState(pos);
+			if (!pos.equals(exceptPos) && state.is(block) && JumboFurnaceBlock.getCorePos(state, pos).equals(corePos))
+			{
+				BlockPos immutablePos = pos.immutable();
+				if (destroy)
+				{
+					// same as level.destroyBlock, minus the block change
+					level.levelEvent(LevelEvent.PARTICLES_DESTROY_BLOCK, immutablePos, Block.getId(state));
+					BlockEntity be = state.hasBlockEntity() ? level.getBlockEntity(immutablePos) : null;
+					Block.dropResources(state, level, immutablePos, be);
+					level.gameEvent(GameEvent.BLOCK_DESTROY, immutablePos, GameEvent.Context.of(state));
+				}
+				pairs.add(Pair.of(immutablePos, level.getFluidState(immutablePos).createLegacyBlock()));
+			}
+		}
+		setStructureStates(level, pairs, true);
+	}
 }
@@ -0,0 +1,40 @@
+package net.commoble.jumbofurnace.jumbo_furnace;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+
+import net.commoble.jumbofurnace.JumboFurnace;
+import net.minecraft.util.ExtraCodecs;
+import net.minecraft.world.item.ItemStack;
+
+/**
+ * Data map value for multiprocess upgrade items, in data/<namespace>/data_maps/item/multiprocess_upgrade.json.
+ * Items in the multiprocessing_upgrade tag without a value give one extra recipe slot each.
+ * @param parallelism Extra recipe slots given by each item in the upgrade slot
+ */
+public record MultiprocessUpgrade(int parallelism)
+{
+	public static final Codec<MultiprocessUpgrade> CODEC = RecordCodecBuilder.create(builder -> builder.group(
+			ExtraCodecs.POSITIVE_INT.fieldOf("parallelism").forGetter(MultiprocessUpgrade::parallelism)
+		).apply(builder, MultiprocessUpgrade::new));
+	
+	/**
+	 * @param stack An itemstack
+	 * @return true if the item can be used as a multiprocess upgrade
+	 */
+	public static boolean isUpgrade(ItemStack stack)
+	{
+		return stack.is(JumboFurnace.MULTIPROCESSING_UPGRADE_TAG)
+			|| stack.getItemHolder().getData(JumboFurnace.MULTIPROCESS_UPGRADE_DATA) != null;
+	}
+	
+	/**
+	 * @param stack An itemstack
+	 * @return Extra recipe slots given by each of that item in the upgrade slot
+	 */
+	public static int getParallelism(ItemStack stack)
+	{
+		MultiprocessUpgrade upgrade = stack.getItemHolder().getData(JumboFurnace.MULTIPROCESS_UPGRADE_DATA);
+		return upgrade == null ? 1 : upgrade.parallelism();
+	}
+}
@@ -1,12 +1,11 @@
 package net.commoble.jumbofurnace.jumbo_furnace;
 
-import net.commoble.jumbofurnace.JumboFurnace;
 import net.minecraft.world.item.ItemStack;
 import net.neoforged.neoforge.items.IItemHandler;
 import net.neoforged.neoforge.items.ItemStackHandler;
 import net.neoforged.neoforge.items.SlotItemHandler;
 
-public class MultiprocessUpgradeHandler extends ItemStackHandler
+public class MultiprocessUpgradeHandler extends ItemStackHandler implements CoreItemHandler
 {	
 	private final JumboFurnaceCoreBlockEntity te;
 	
@@ -16,18 +15,23 @@ public class MultiprocessUpgradeHandler extends ItemStackHandler
 		this.te = te;
 	}
 
+	@Override
+	public JumboFurnaceCoreBlockEntity getCore()
+	{
+		return this.te;
+	}
+
 	@Override
 	public boolean isItemValid(int slot, ItemStack stack)
 	{
-		return stack.is(JumboFurnace.MULTIPROCESSING_UPGRADE_TAG);
+		return MultiprocessUpgrade.isUpgrade(stack);
 	}
 
 	@Override
 	protected void onContentsChanged(int slot)
 	{
 		super.onContentsChanged(slot);
-		this.te.markInputInventoryChanged();
-		this.te.setChanged();
+		this.te.markUpgradeInventoryChanged();
 	}
 	
 	// need a handler for the slot as well
@@ -44,7 +48,7 @@ public class MultiprocessUpgradeHandler extends ItemStackHandler
 		@Override
 		public boolean mayPlace(ItemStack stack)
 		{
-			return stack.is(JumboFurnace.MULTIPROCESSING_UPGRADE_TAG);
+			return MultiprocessUpgrade.isUpgrade(stack);
 		}
 	}
 }
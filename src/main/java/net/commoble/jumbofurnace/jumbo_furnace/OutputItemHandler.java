@@ -3,10 +3,8 @@ package net.commoble.jumbofurnace.jumbo_furnace;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.world.item.ItemStack;
-import net.neoforged.neoforge.items.ItemHandlerHelper;
-import net.neoforged.neoforge.items.ItemStackHandler;
 
-public class OutputItemHandler extends ItemStackHandler
+public class OutputItemHandler extends BufferedItemStackHandler implements CoreItemHandler
 {
 	public static final String EXPERIENCE = "xp";
 	
@@ -14,15 +12,22 @@ public class OutputItemHandler extends ItemStackHandler
 	public boolean forcingInserts = false;
 	public float storedExperience = 0F;
 	
-	public OutputItemHandler(JumboFurnaceCoreBlockEntity te)
+	public OutputItemHandler(JumboFurnaceCoreBlockEntity te, int slots)
 	{
-		super(JumboFurnaceMenu.INPUT_SLOTS);
+		super(slots, JumboFurnaceCoreBlockEntity::getBufferSlotCapacity);
 		this.te = te;
 	}
+
+	@Override
+	public JumboFurnaceCoreBlockEntity getCore()
+	{
+		return this.te;
+	}
 	
 	public void addExperience(float experience)
 	{
 		this.storedExperience += experience;
+		this.te.markOutputExperienceChanged();
 	}
 
 	@Override
@@ -34,7 +39,7 @@ public class OutputItemHandler extends ItemStackHandler
 	public ItemStack insertCraftResult(ItemStack stack, boolean simulate)
 	{
 		this.forcingInserts = true;
-		ItemStack result = ItemHandlerHelper.insertItemStacked(this, stack, simulate);
+		ItemStack result = this.insertStacked(stack, simulate);
 		this.forcingInserts = false;
 		return result;
 	}
@@ -43,7 +48,6 @@ public class OutputItemHandler extends ItemStackHandler
 	protected void onContentsChanged(int slot)
 	{
 		super.onContentsChanged(slot);
-		this.te.setChanged();
 		this.te.markOutputInventoryChanged();
 	}
 	
@@ -51,6 +55,10 @@ public class OutputItemHandler extends ItemStackHandler
 	{
 		float amount = this.storedExperience;
 		this.storedExperience = 0;
+		if (amount != 0F)
+		{
+			this.te.markOutputExperienceChanged();
+		}
 		return amount;
 	}
 
@@ -75,7 +83,8 @@ public class OutputItemHandler extends ItemStackHandler
 		ItemStack result = super.extractItem(slot, amount, simulate);
 		if (!simulate && !result.isEmpty() && this.getStackInSlot(slot).isEmpty() && !te.backstock.isEmpty())
 		{
-			ItemStack backstockStack = te.backstock.removeFirst();
+			ItemStack backstockStack = te.backstock.removeFirstStack();
+			te.markBackstockChanged();
 			if (!backstockStack.isEmpty())
 			{
 				this.setStackInSlot(slot, backstockStack);
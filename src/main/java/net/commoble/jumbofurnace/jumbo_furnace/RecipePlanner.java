@@ -0,0 +1,218 @@
+package net.commoble.jumbofurnace.jumbo_furnace;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.commoble.jumbofurnace.JumboFurnaceUtils;
+import net.commoble.jumbofurnace.recipes.JumboFurnaceRecipe;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.neoforged.neoforge.common.crafting.SizedIngredient;
+import net.neoforged.neoforge.items.IItemHandler;
+
+/**
+ * Decides how many crafts of each candidate recipe a jumbo furnace should start.
+ * 
+ * The furnace's usual plan is greedy: it starts as many crafts as it can of each recipe in turn,
+ * so a recipe early in the list can use up items that several later recipes needed, leaving recipe slots empty.
+ * The optimizing planner instead searches over how many crafts of each recipe to start,
+ * maximizing the number of crafts started (and then the total cooking time of those crafts),
+ * within a time budget. The first plan it tries is the greedy plan, so it never does worse than that.
+ */
+public class RecipePlanner
+{
+	/**
+	 * The inventories after simulating one craft of a recipe
+	 * @param inputs Copy of the input inventory with the craft's ingredients removed
+	 * @param outputs Copy of the output inventory with the craft's results and remainders added
+	 * @param consumed Items consumed by the craft, merged into as few stacks as possible
+	 * @param remainders Crafting remainders of the consumed items
+	 */
+	public static record Craft(IItemHandler inputs, IItemHandler outputs, List<ItemStack> consumed, List<ItemStack> remainders) {}
+	
+	/**
+	 * Simulates one craft of a recipe without modifying the given inventories
+	 * @param recipe Recipe to craft
+	 * @param inputs Inventory to pull ingredients from
+	 * @param outputs Inventory that the results and remainders must fit in
+	 * @return The inventories after the craft, or null if the ingredients aren't there or the results don't fit
+	 */
+	@Nullable
+	public static Craft simulateCraft(JumboFurnaceRecipe recipe, IItemHandler inputs, IItemHandler outputs)
+	{
+		// attempt to pull each ingredient out of a copy of the inputs
+		IItemHandler inputSimulator = JumboFurnaceUtils.copyItemHandler(inputs);
+		List<ItemStack> consumed = new ArrayList<>();
+		List<ItemStack> remainders = new ArrayList<>();
+		for (SizedIngredient sizedIngredient : recipe.ingredients())
+		{
+			Ingredient ingredient = sizedIngredient.ingredient();
+			int requiredPulls = sizedIngredient.count();
+			for (int pull = 0; pull < requiredPulls; pull++)
+			{
+				// attempt to find matching stacks, pull them out of the input simulator
+				boolean foundInput = false;
+				int inputSlots = inputSimulator.getSlots();
+				for (int inputSlot=0; inputSlot < inputSlots; inputSlot++)
+				{
+					// check each ingredient slot until we find one
+					if (ingredient.test(inputSimulator.extractItem(inputSlot, 1, true)))
+					{
+						ItemStack inputStack = inputSimulator.extractItem(inputSlot, 1, false);
+						ItemStack remainder = inputStack.getCraftingRemainingItem();
+						if (!remainder.isEmpty())
+						{
+							remainders.add(remainder.copy());
+						}
+						JumboFurnaceUtils.addMergedStack(consumed, inputStack);
+						foundInput = true;
+						break;
+					}
+				}
+				// if we didn't find this ingredient, we can't make the recipe
+				if (!foundInput)
+				{
+					return null;
+				}
+			}
+		}
+		// if we're still here, we found every required ingredient
+		// now check if we have room in the output simulator for results + remainders
+		IItemHandler outputSimulator = JumboFurnaceUtils.copyItemHandler(outputs);
+		// TODO at some point we should support ingredient-sensitive outputs
+		// currently neither vanilla smelting recipes nor jumbo recipes support this
+		// (vanilla #assemble doesn't support multiple outputs)
+		// this requires custom recipe serializers that use a jumbo smelting recipe type
+		// so adding this feature would be in support of mods that are adding their own custom jumbo recipes
+		// so we can add support if it's requested by other mods but otherwise we'll leave it alone
+		for (ItemStack stack : recipe.results())
+		{
+			// use insertItemStacked to prioritize slots that already have partial stacks of that item in them
+			if (!JumboFurnaceUtils.insertItemStacked(outputSimulator, stack.copy(), false).isEmpty())
+			{
+				return null;
+			}
+		}
+		for (ItemStack stack : remainders)
+		{
+			if (!JumboFurnaceUtils.insertItemStacked(outputSimulator, stack.copy(), false).isEmpty())
+			{
+				return null;
+			}
+		}
+		return new Craft(inputSimulator, outputSimulator, consumed, remainders);
+	}
+	
+	/**
+	 * Searches for the best number of crafts of each candidate recipe to start
+	 * @param candidates Recipes that may be startable, in the order their batches will be started in
+	 * @param inputs The input inventory (not modified)
+	 * @param outputs Simulator of the output inventory and everything promised to it (not modified)
+	 * @param freeRecipeSlots Maximum number of crafts to start
+	 * @param budgetNanos Time to stop searching after, in nanoseconds (the greedy plan is always finished first, even if it takes longer)
+	 * @return Number of crafts of each recipe to start, recipes that shouldn't be started are absent
+	 */
+	public static Reference2IntMap<JumboFurnaceRecipe> plan(List<JumboFurnaceRecipe> candidates, IItemHandler inputs, IItemHandler outputs, int freeRecipeSlots, long budgetNanos)
+	{
+		Search search = new Search(candidates, freeRecipeSlots, System.nanoTime() + budgetNanos);
+		search.search(0, inputs, outputs, freeRecipeSlots, 0, 0L);
+		
+		Reference2IntMap<JumboFurnaceRecipe> plan = new Reference2IntOpenHashMap<>();
+		for (int i=0; i<search.bestCounts.length; i++)
+		{
+			if (search.bestCounts[i] > 0)
+			{
+				plan.put(candidates.get(i), search.bestCounts[i]);
+			}
+		}
+		return plan;
+	}
+	
+	/**
+	 * Depth-first branch and bound over the number of crafts of each candidate, most crafts first
+	 */
+	private static class Search
+	{
+		private final List<JumboFurnaceRecipe> candidates;
+		private final int totalSlots;
+		private final long deadline;
+		private final int[] counts;
+		private final int[] bestCounts;
+		private int bestCrafts = -1;
+		private long bestTicks = 0L;
+		// set when we either fill every slot or run out of time
+		private boolean done = false;
+		// set once the first (greedy) descent has reached the end of a plan;
+		// we don't stop for time until then, so the plan we use is never worse than the greedy one
+		private boolean foundGreedyPlan = false;
+		
+		private Search(List<JumboFurnaceRecipe> candidates, int totalSlots, long deadline)
+		{
+			this.candidates = candidates;
+			this.totalSlots = totalSlots;
+			this.deadline = deadline;
+			this.counts = new int[candidates.size()];
+			this.bestCounts = new int[candidates.size()];
+		}
+		
+		private void search(int index, IItemHandler inputs, IItemHandler outputs, int freeSlots, int crafts, long ticks)
+		{
+			if (crafts > this.bestCrafts || (crafts == this.bestCrafts && ticks > this.bestTicks))
+			{
+				this.bestCrafts = crafts;
+				this.bestTicks = ticks;
+				System.arraycopy(this.counts, 0, this.bestCounts, 0, this.counts.length);
+				// we can't start more crafts than we have slots for, so there's nothing better to find
+				if (crafts >= this.totalSlots)
+				{
+					this.done = true;
+					return;
+				}
+			}
+			// stop if there's nothing left to decide, or even filling every remaining slot couldn't beat the best plan
+			if (index >= this.candidates.size() || freeSlots <= 0)
+			{
+				this.foundGreedyPlan = true;
+				return;
+			}
+			if (crafts + freeSlots < this.bestCrafts)
+			{
+				return;
+			}
+			if (this.foundGreedyPlan && System.nanoTime() > this.deadline)
+			{
+				this.done = true;
+				return;
+			}
+			
+			// simulate as many crafts of this recipe as we can, remembering the inventories after each
+			JumboFurnaceRecipe recipe = this.candidates.get(index);
+			List<IItemHandler> inputStates = new ArrayList<>();
+			List<IItemHandler> outputStates = new ArrayList<>();
+			inputStates.add(inputs);
+			outputStates.add(outputs);
+			for (int craftCount=0; craftCount < freeSlots; craftCount++)
+			{
+				Craft craft = simulateCraft(recipe, inputStates.get(craftCount), outputStates.get(craftCount));
+				if (craft == null)
+				{
+					break;
+				}
+				inputStates.add(craft.inputs());
+				outputStates.add(craft.outputs());
+			}
+			
+			// try the most crafts first, so the first plan we find is the greedy one
+			for (int count = inputStates.size() - 1; count >= 0 && !this.done; count--)
+			{
+				this.counts[index] = count;
+				this.search(index + 1, inputStates.get(count), outputStates.get(count), freeSlots - count, crafts + count, ticks + (long)count * recipe.cookingTime());
+			}
+			this.counts[index] = 0;
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package net.commoble.jumbofurnace.jumbo_furnace;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+
+import net.commoble.jumbofurnace.JumboFurnace;
+import net.commoble.jumbofurnace.recipes.JumboFurnaceRecipe;
+import net.minecraft.world.item.ItemStack;
+
+/**
+ * Data map value for items whose recipes should be favored by furnaces using the priority scheduling policy,
+ * in data/<namespace>/data_maps/item/recipe_priority.json
+ * @param priority Priority of recipes that make the item; higher priorities are started and heated first, and items without a value have priority 0
+ */
+public record RecipePriority(int priority)
+{
+	public static final Codec<RecipePriority> CODEC = RecordCodecBuilder.create(builder -> builder.group(
+			Codec.INT.fieldOf("priority").forGetter(RecipePriority::priority)
+		).apply(builder, RecipePriority::new));
+	
+	/**
+	 * @param recipe A jumbo furnace recipe
+	 * @return The highest priority of the recipe's results
+	 */
+	public static int getPriority(JumboFurnaceRecipe recipe)
+	{
+		int priority = Integer.MIN_VALUE;
+		for (ItemStack result : recipe.results())
+		{
+			RecipePriority value = result.getItemHolder().getData(JumboFurnace.RECIPE_PRIORITY_DATA);
+			priority = Math.max(priority, value == null ? 0 : value.priority());
+		}
+		return priority == Integer.MIN_VALUE ? 0 : priority;
+	}
+}
@@ -0,0 +1,115 @@
+package net.commoble.jumbofurnace.jumbo_furnace;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import net.commoble.jumbofurnace.JumboFurnace;
+import net.commoble.jumbofurnace.Names;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.util.Mth;
+import net.minecraft.world.item.ItemStack;
+import net.neoforged.neoforge.network.handling.IPayloadContext;
+
+/**
+ * Sent to players with an open jumbo furnace menu when the furnace's inflight recipes start, complete, or stop or resume progressing.
+ * Only changes since the last packet are sent; the client interpolates progress between packets.
+ * @param containerId Id of the menu this is for
+ * @param reset If true, the client should discard all recipes it knows about before applying the updates
+ * @param anchorTime Game time that stalled recipes stopped progressing at
+ * @param running Whether the inflight recipes are currently progressing
+ * @param updated Recipes that started or whose start ticks changed
+ * @param removed Ids of recipes that completed or otherwise stopped being inflight
+ */
+public record RecipeProgressPayload(int containerId, boolean reset, long anchorTime, boolean running, List<Entry> updated, IntList removed) implements CustomPacketPayload
+{
+	public static final CustomPacketPayload.Type<RecipeProgressPayload> TYPE = new CustomPacketPayload.Type<>(JumboFurnace.id(Names.RECIPE_PROGRESS));
+	public static final StreamCodec<RegistryFriendlyByteBuf, RecipeProgressPayload> STREAM_CODEC = StreamCodec.ofMember(RecipeProgressPayload::write, RecipeProgressPayload::read);
+
+	@Override
+	public Type<? extends CustomPacketPayload> type()
+	{
+		return TYPE;
+	}
+
+	public void handle(IPayloadContext context)
+	{
+		if (context.player().containerMenu instanceof JumboFurnaceMenu menu && menu.containerId == this.containerId)
+		{
+			menu.handleRecipeProgress(this);
+		}
+	}
+
+	private void write(RegistryFriendlyByteBuf buffer)
+	{
+		buffer.writeVarInt(this.containerId);
+		buffer.writeBoolean(this.reset);
+		buffer.writeVarLong(this.anchorTime);
+		buffer.writeBoolean(this.running);
+		buffer.writeVarInt(this.updated.size());
+		for (Entry entry : this.updated)
+		{
+			buffer.writeVarInt(entry.id());
+			buffer.writeVarLong(entry.startTick());
+			buffer.writeVarInt(entry.duration());
+			buffer.writeVarInt(entry.count());
+			ItemStack.OPTIONAL_STREAM_CODEC.encode(buffer, entry.icon());
+		}
+		buffer.writeVarInt(this.removed.size());
+		for (int i=0; i<this.removed.size(); i++)
+		{
+			buffer.writeVarInt(this.removed.getInt(i));
+		}
+	}
+
+	private static RecipeProgressPayload read(RegistryFriendlyByteBuf buffer)
+	{
+		int containerId = buffer.readVarInt();
+		boolean reset = buffer.readBoolean();
+		long anchorTime = buffer.readVarLong();
+		boolean running = buffer.readBoolean();
+		int updatedCount = buffer.readVarInt();
+		List<Entry> updated = new ArrayList<>(updatedCount);
+		for (int i=0; i<updatedCount; i++)
+		{
+			updated.add(new Entry(buffer.readVarInt(), buffer.readVarLong(), buffer.readVarInt(), buffer.readVarInt(), ItemStack.OPTIONAL_STREAM_CODEC.decode(buffer)));
+		}
+		int removedCount = buffer.readVarInt();
+		IntList removed = new IntArrayList(removedCount);
+		for (int i=0; i<removedCount; i++)
+		{
+			removed.add(buffer.readVarInt());
+		}
+		return new RecipeProgressPayload(containerId, reset, anchorTime, running, updated, removed);
+	}
+
+	/**
+	 * Progress information for one inflight recipe
+	 * @param id Id of the inflight recipe, unique while it exists
+	 * @param startTick Game time the recipe would have started at if it had always been heated
+	 * @param duration Cooking time of the recipe in ticks
+	 * @param count Number of crafts of the recipe in the batch
+	 * @param icon The recipe's first result, for display
+	 */
+	public static record Entry(int id, long startTick, int duration, int count, ItemStack icon)
+	{
+		/**
+		 * @param gameTime Current game time
+		 * @param anchorTime Game time that recipes stopped progressing at if they aren't running
+		 * @param running Whether recipes are currently progressing
+		 * @return Progress of the recipe from 0 to 1
+		 */
+		public float getProgress(long gameTime, long anchorTime, boolean running)
+		{
+			if (this.duration <= 0)
+			{
+				return 1F;
+			}
+			long progress = (running ? gameTime : anchorTime) - this.startTick;
+			return Mth.clamp((float)progress / this.duration, 0F, 1F);
+		}
+	}
+}
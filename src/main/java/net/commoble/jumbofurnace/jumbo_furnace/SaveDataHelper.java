@@ -0,0 +1,316 @@
+package net.commoble.jumbofurnace.jumbo_furnace;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenCustomHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.commoble.jumbofurnace.recipes.InFlightRecipe;
+import net.commoble.jumbofurnace.recipes.JumboFurnaceRecipe;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtOps;
+import net.minecraft.nbt.Tag;
+import net.minecraft.resources.RegistryOps;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.ItemStackLinkedSet;
+import net.neoforged.neoforge.common.crafting.SizedIngredient;
+
+/**
+ * Hand-written readers and writers for the larger sections of the jumbo furnace core's saved data.
+ * Each section stores its distinct items once in a palette, and refers to them by index in packed int arrays.
+ * Older saves which used codecs for these sections are read by the core instead.
+ */
+public class SaveDataHelper
+{
+	/** Version of the palette format; saves without a version use the older codec format **/
+	public static final int FORMAT_VERSION = 1;
+
+	public static final String ITEMS = "items";
+	public static final String RECIPES = "recipes";
+	public static final String RECIPE = "recipe";
+	public static final String BASE_TICK = "base_tick";
+	public static final String START_TICKS = "start_ticks";
+	public static final String COUNTS = "counts";
+	public static final String DURATIONS = "durations";
+	public static final String INPUTS = "inputs";
+	public static final String STACKS = "stacks";
+
+	public static final String GROUP = "group";
+	public static final String INGREDIENTS = "ingredients";
+	public static final String RESULTS = "results";
+	public static final String EXPERIENCE = "experience";
+	public static final String COOKING_TIME = "cookingtime";
+
+	/**
+	 * Writes inflight recipes as a palette of items, a palette of recipes, and int arrays of indices into them.
+	 * Start ticks are written as offsets from the earliest start tick.
+	 * Batch counts are only written if any recipe has more than one craft,
+	 * and durations are only written if any recipe was sped up.
+	 * @param recipes Inflight recipes to write
+	 * @param registries Registry access for writing items and ingredients
+	 * @return CompoundTag containing the recipes
+	 */
+	public static CompoundTag writeInFlightRecipes(List<InFlightRecipe> recipes, HolderLookup.Provider registries)
+	{
+		RegistryOps<Tag> ops = registries.createSerializationContext(NbtOps.INSTANCE);
+		ItemPalette items = new ItemPalette();
+		ListTag recipeTags = new ListTag();
+		Reference2IntMap<JumboFurnaceRecipe> recipeIndices = new Reference2IntOpenHashMap<>();
+
+		int recipeCount = recipes.size();
+		int[] recipeIds = new int[recipeCount];
+		int[] startTicks = new int[recipeCount];
+		int[] counts = new int[recipeCount];
+		boolean anyBatches = false;
+		int[] durations = new int[recipeCount];
+		boolean anySpedUp = false;
+		IntArrayList inputs = new IntArrayList();
+		long baseTick = Long.MAX_VALUE;
+		for (InFlightRecipe recipe : recipes)
+		{
+			baseTick = Math.min(baseTick, recipe.startTick());
+		}
+
+		for (int i=0; i<recipeCount; i++)
+		{
+			InFlightRecipe inflight = recipes.get(i);
+			JumboFurnaceRecipe recipe = inflight.recipe();
+			int recipeIndex = recipeIndices.getOrDefault(recipe, -1);
+			if (recipeIndex < 0)
+			{
+				recipeIndex = recipeTags.size();
+				recipeIndices.put(recipe, recipeIndex);
+				recipeTags.add(writeRecipe(recipe, items, ops));
+			}
+			recipeIds[i] = recipeIndex;
+			startTicks[i] = (int)(inflight.startTick() - baseTick);
+			counts[i] = inflight.count();
+			anyBatches |= inflight.count() > 1;
+			durations[i] = inflight.duration();
+			anySpedUp |= inflight.duration() != recipe.cookingTime();
+			// each recipe's inputs are written as the number of stacks, followed by that many (index, count) pairs
+			int countPosition = inputs.size();
+			inputs.add(0);
+			items.writeStacks(inflight.inputs(), inputs);
+			inputs.set(countPosition, (inputs.size() - countPosition - 1) / 2);
+		}
+
+		CompoundTag compound = new CompoundTag();
+		compound.put(ITEMS, items.write(registries));
+		compound.put(RECIPES, recipeTags);
+		compound.putIntArray(RECIPE, recipeIds);
+		compound.putLong(BASE_TICK, recipeCount > 0 ? baseTick : 0L);
+		compound.putIntArray(START_TICKS, startTicks);
+		if (anyBatches)
+		{
+			compound.putIntArray(COUNTS, counts);
+		}
+		if (anySpedUp)
+		{
+			compound.putIntArray(DURATIONS, durations);
+		}
+		compound.putIntArray(INPUTS, inputs.toIntArray());
+		return compound;
+	}
+
+	/**
+	 * Reads inflight recipes written by {@link #writeInFlightRecipes}.
+	 * Recipes with invalid data are skipped.
+	 * @param compound CompoundTag containing the recipes
+	 * @param registries Registry access for reading items and ingredients
+	 * @return Mutable list of inflight recipes
+	 */
+	public static List<InFlightRecipe> readInFlightRecipes(CompoundTag compound, HolderLookup.Provider registries)
+	{
+		RegistryOps<Tag> ops = registries.createSerializationContext(NbtOps.INSTANCE);
+		List<ItemStack> items = readPalette(compound.getList(ITEMS, Tag.TAG_COMPOUND), registries);
+		ListTag recipeTags = compound.getList(RECIPES, Tag.TAG_COMPOUND);
+		List<JumboFurnaceRecipe> recipePalette = new ArrayList<>(recipeTags.size());
+		for (int i=0; i<recipeTags.size(); i++)
+		{
+			recipePalette.add(readRecipe(recipeTags.getCompound(i), items, ops));
+		}
+
+		int[] recipeIds = compound.getIntArray(RECIPE);
+		int[] startTicks = compound.getIntArray(START_TICKS);
+		int[] counts = compound.getIntArray(COUNTS);
+		int[] durations = compound.getIntArray(DURATIONS);
+		int[] inputs = compound.getIntArray(INPUTS);
+		long baseTick = compound.getLong(BASE_TICK);
+		int recipeCount = Math.min(recipeIds.length, startTicks.length);
+		List<InFlightRecipe> results = new ArrayList<>(recipeCount);
+		int inputIndex = 0;
+		for (int i=0; i<recipeCount && inputIndex < inputs.length; i++)
+		{
+			int inputCount = inputs[inputIndex++];
+			List<ItemStack> recipeInputs = new ArrayList<>(inputCount);
+			inputIndex = readStacks(inputs, inputIndex, inputCount, items, recipeInputs);
+			int recipeId = recipeIds[i];
+			JumboFurnaceRecipe recipe = recipeId >= 0 && recipeId < recipePalette.size() ? recipePalette.get(recipeId) : null;
+			if (recipe != null)
+			{
+				int count = i < counts.length ? counts[i] : 1;
+				int duration = i < durations.length ? durations[i] : recipe.cookingTime();
+				results.add(new InFlightRecipe(recipe, recipeInputs, baseTick + startTicks[i], count, duration));
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Writes a list of itemstacks as a palette of items and an int array of (index, count) pairs
+	 * @param stacks Itemstacks to write
+	 * @param registries Registry access for writing items
+	 * @return CompoundTag containing the itemstacks
+	 */
+	public static CompoundTag writeStacks(List<ItemStack> stacks, HolderLookup.Provider registries)
+	{
+		ItemPalette items = new ItemPalette();
+		IntArrayList indices = new IntArrayList(stacks.size() * 2);
+		items.writeStacks(stacks, indices);
+		CompoundTag compound = new CompoundTag();
+		compound.put(ITEMS, items.write(registries));
+		compound.putIntArray(STACKS, indices.toIntArray());
+		return compound;
+	}
+
+	/**
+	 * Reads itemstacks written by {@link #writeStacks}
+	 * @param compound CompoundTag containing the itemstacks
+	 * @param registries Registry access for reading items
+	 * @return Mutable list of itemstacks
+	 */
+	public static List<ItemStack> readStacks(CompoundTag compound, HolderLookup.Provider registries)
+	{
+		List<ItemStack> items = readPalette(compound.getList(ITEMS, Tag.TAG_COMPOUND), registries);
+		int[] indices = compound.getIntArray(STACKS);
+		List<ItemStack> results = new ArrayList<>(indices.length / 2);
+		readStacks(indices, 0, indices.length / 2, items, results);
+		return results;
+	}
+
+	private static CompoundTag writeRecipe(JumboFurnaceRecipe recipe, ItemPalette items, RegistryOps<Tag> ops)
+	{
+		CompoundTag compound = new CompoundTag();
+		if (!recipe.group().isEmpty())
+		{
+			compound.putString(GROUP, recipe.group());
+		}
+		SizedIngredient.FLAT_CODEC.listOf().encodeStart(ops, recipe.ingredients())
+			.ifSuccess(tag -> compound.put(INGREDIENTS, tag));
+		IntArrayList results = new IntArrayList();
+		items.writeStacks(recipe.results(), results);
+		compound.putIntArray(RESULTS, results.toIntArray());
+		compound.putFloat(EXPERIENCE, recipe.experience());
+		compound.putInt(COOKING_TIME, recipe.cookingTime());
+		return compound;
+	}
+
+	@Nullable
+	private static JumboFurnaceRecipe readRecipe(CompoundTag compound, List<ItemStack> items, RegistryOps<Tag> ops)
+	{
+		Tag ingredientsTag = compound.get(INGREDIENTS);
+		List<SizedIngredient> ingredients = ingredientsTag == null
+			? List.of()
+			: SizedIngredient.FLAT_CODEC.listOf().parse(ops, ingredientsTag).result().orElse(List.of());
+		int[] resultIndices = compound.getIntArray(RESULTS);
+		List<ItemStack> results = new ArrayList<>(resultIndices.length / 2);
+		readStacks(resultIndices, 0, resultIndices.length / 2, items, results);
+		if (ingredients.isEmpty() || results.isEmpty())
+		{
+			return null;
+		}
+		return new JumboFurnaceRecipe(compound.getString(GROUP), ingredients, results, compound.getFloat(EXPERIENCE), compound.getInt(COOKING_TIME));
+	}
+
+	/**
+	 * Reads (index, count) pairs from an int array into a list of itemstacks, skipping invalid indices
+	 * @return the position in the array after the last pair read
+	 */
+	private static int readStacks(int[] indices, int start, int pairs, List<ItemStack> items, List<ItemStack> results)
+	{
+		int position = start;
+		for (int pair=0; pair<pairs && position + 1 < indices.length; pair++)
+		{
+			int index = indices[position++];
+			int count = indices[position++];
+			if (index >= 0 && index < items.size() && count > 0)
+			{
+				ItemStack item = items.get(index);
+				if (!item.isEmpty())
+				{
+					results.add(item.copyWithCount(count));
+				}
+			}
+		}
+		return position;
+	}
+
+	private static List<ItemStack> readPalette(ListTag tags, HolderLookup.Provider registries)
+	{
+		int size = tags.size();
+		List<ItemStack> items = new ArrayList<>(size);
+		for (int i=0; i<size; i++)
+		{
+			// keep invalid items in the palette as empty stacks so the indices of the others don't change
+			items.add(ItemStack.parseOptional(registries, tags.getCompound(i)));
+		}
+		return items;
+	}
+
+	/**
+	 * Assigns indices to distinct items (with components), ignoring stack size
+	 */
+	private static class ItemPalette
+	{
+		private final Object2IntMap<ItemStack> indices = new Object2IntOpenCustomHashMap<>(ItemStackLinkedSet.TYPE_AND_TAG);
+		private final List<ItemStack> items = new ArrayList<>();
+
+		private ItemPalette()
+		{
+			this.indices.defaultReturnValue(-1);
+		}
+
+		private int indexOf(ItemStack stack)
+		{
+			int index = this.indices.getInt(stack);
+			if (index < 0)
+			{
+				index = this.items.size();
+				ItemStack item = stack.copyWithCount(1);
+				this.items.add(item);
+				this.indices.put(item, index);
+			}
+			return index;
+		}
+
+		private void writeStacks(List<ItemStack> stacks, IntArrayList output)
+		{
+			for (ItemStack stack : stacks)
+			{
+				if (!stack.isEmpty())
+				{
+					output.add(this.indexOf(stack));
+					output.add(stack.getCount());
+				}
+			}
+		}
+
+		private ListTag write(HolderLookup.Provider registries)
+		{
+			ListTag tags = new ListTag();
+			for (ItemStack item : this.items)
+			{
+				tags.add(item.save(registries));
+			}
+			return tags;
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package net.commoble.jumbofurnace.jumbo_furnace;
+
+import java.util.Comparator;
+
+import net.commoble.jumbofurnace.recipes.InFlightRecipe;
+import net.commoble.jumbofurnace.recipes.JumboFurnaceRecipe;
+import net.commoble.jumbofurnace.recipes.RecipeSorter;
+import net.minecraft.util.StringRepresentable;
+
+/**
+ * Decides which recipes a jumbo furnace starts first when it has more startable recipes than free recipe slots,
+ * and which inflight recipes get heat first when there isn't enough for all of them.
+ * Inflight recipes are kept in the policy's order as they're added, so heating them in order never needs a sort.
+ */
+public enum SchedulingPolicy implements StringRepresentable
+{
+	/** Recipes with more specific ingredients start first, and recipes that started first are heated first **/
+	FIFO("fifo",
+		RecipeSorter::compareRecipes,
+		Comparator.comparingInt(InFlightRecipe::id)),
+	/** Recipes with shorter cooking times start and are heated first **/
+	SHORTEST_FIRST("shortest_first",
+		Comparator.comparingInt(JumboFurnaceRecipe::cookingTime).thenComparing(RecipeSorter::compareRecipes),
+		Comparator.comparingInt(InFlightRecipe::duration).thenComparingInt(InFlightRecipe::id)),
+	/** Recipes whose results have higher priorities in the recipe_priority data map start and are heated first **/
+	PRIORITY("priority",
+		Comparator.comparingInt(RecipePriority::getPriority).reversed().thenComparing(RecipeSorter::compareRecipes),
+		Comparator.comparingInt((InFlightRecipe recipe) -> RecipePriority.getPriority(recipe.recipe())).reversed().thenComparingInt(InFlightRecipe::id));
+	
+	public static final StringRepresentable.EnumCodec<SchedulingPolicy> CODEC = StringRepresentable.fromEnum(SchedulingPolicy::values);
+	
+	private final String name;
+	private final Comparator<JumboFurnaceRecipe> candidateOrder;
+	private final Comparator<InFlightRecipe> heatingOrder;
+	
+	private SchedulingPolicy(String name, Comparator<JumboFurnaceRecipe> candidateOrder, Comparator<InFlightRecipe> heatingOrder)
+	{
+		this.name = name;
+		this.candidateOrder = candidateOrder;
+		this.heatingOrder = heatingOrder;
+	}
+
+	@Override
+	public String getSerializedName()
+	{
+		return this.name;
+	}
+	
+	/**
+	 * @return Order to try to start candidate recipes in
+	 */
+	public Comparator<JumboFurnaceRecipe> candidateOrder()
+	{
+		return this.candidateOrder;
+	}
+	
+	/**
+	 * @return Order to heat inflight recipes in
+	 */
+	public Comparator<InFlightRecipe> heatingOrder()
+	{
+		return this.heatingOrder;
+	}
+	
+	/**
+	 * @return The policy after this one, looping back to the first
+	 */
+	public SchedulingPolicy next()
+	{
+		SchedulingPolicy[] values = values();
+		return values[(this.ordinal() + 1) % values.length];
+	}
+}
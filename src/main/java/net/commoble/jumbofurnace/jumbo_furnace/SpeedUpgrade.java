@@ -0,0 +1,105 @@
+package net.commoble.jumbofurnace.jumbo_furnace;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.google.common.collect.Streams;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+
+import net.commoble.jumbofurnace.JumboFurnace;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.network.chat.Component;
+import net.minecraft.util.ExtraCodecs;
+import net.minecraft.util.Mth;
+import net.minecraft.world.item.ItemStack;
+
+/**
+ * Data map value for speed upgrade items, in data/<namespace>/data_maps/item/speed_upgrade.json.
+ * Items in the speed_upgrade tag without a value add 1.0 speed each.
+ * @param speed Cooking speed added by each item in the speed upgrade slot; 1.0 is one more than a furnace's base speed
+ */
+public record SpeedUpgrade(float speed)
+{
+	public static final Codec<SpeedUpgrade> CODEC = RecordCodecBuilder.create(builder -> builder.group(
+			ExtraCodecs.POSITIVE_FLOAT.fieldOf("speed").forGetter(SpeedUpgrade::speed)
+		).apply(builder, SpeedUpgrade::new));
+	
+	public static final String COOKING_TIME = "gui.jumbofurnace.cooking_time";
+	public static final String UPGRADED_COOKING_TIME = "gui.jumbofurnace.upgraded_cooking_time";
+	
+	/**
+	 * @param stack An itemstack
+	 * @return true if the item can be used as a speed upgrade
+	 */
+	public static boolean isUpgrade(ItemStack stack)
+	{
+		return stack.is(JumboFurnace.SPEED_UPGRADE_TAG)
+			|| stack.getItemHolder().getData(JumboFurnace.SPEED_UPGRADE_DATA) != null;
+	}
+	
+	/**
+	 * @param stack The contents of a furnace's speed upgrade slot
+	 * @return The furnace's cooking speed multiplier, at least 1
+	 */
+	public static double getSpeedMultiplier(ItemStack stack)
+	{
+		if (stack.isEmpty() || !isUpgrade(stack))
+			return 1D;
+		
+		SpeedUpgrade upgrade = stack.getItemHolder().getData(JumboFurnace.SPEED_UPGRADE_DATA);
+		float speed = upgrade == null ? 1F : upgrade.speed();
+		return 1D + (double)stack.getCount() * speed;
+	}
+	
+	/**
+	 * @param cookingTime A recipe's cooking time in ticks
+	 * @param speedMultiplier A furnace's cooking speed multiplier
+	 * @return The number of ticks the recipe takes to cook at that speed
+	 */
+	public static int getEffectiveCookingTime(int cookingTime, double speedMultiplier)
+	{
+		if (cookingTime <= 0 || speedMultiplier <= 1D)
+			return cookingTime;
+		
+		return Math.max(1, Mth.ceil(cookingTime / speedMultiplier));
+	}
+	
+	/**
+	 * @param cookingTime A recipe's cooking time in ticks
+	 * @param effectiveCookingTime The number of ticks the recipe takes to cook in a particular furnace
+	 * @return Heat consumed per tick by each craft of the recipe, such that about the same heat is consumed over the whole recipe at any speed.
+	 * This can be more than 1, so a furnace can be left with less heat than a sped up recipe needs for a tick;
+	 * if it has no fuel to add, it lets that heat go out rather than stay lit (losing less than this much heat)
+	 */
+	public static int getHeatPerCraft(int cookingTime, int effectiveCookingTime)
+	{
+		if (cookingTime <= 0 || effectiveCookingTime <= 0)
+			return 1;
+		
+		return Math.max(1, Mth.positiveCeilDiv(cookingTime, effectiveCookingTime));
+	}
+	
+	/**
+	 * @param cookingTime A recipe's cooking time in ticks
+	 * @return Tooltip lines showing the recipe's cooking time, and its cooking time with a full stack of each speed upgrade item
+	 */
+	public static List<Component> getCookingTimeTooltip(int cookingTime)
+	{
+		List<Component> lines = new ArrayList<>();
+		lines.add(Component.translatable(COOKING_TIME, cookingTime / 20F));
+		Stream.concat(
+				Streams.stream(BuiltInRegistries.ITEM.getTagOrEmpty(JumboFurnace.SPEED_UPGRADE_TAG)),
+				BuiltInRegistries.ITEM.getDataMap(JumboFurnace.SPEED_UPGRADE_DATA).keySet().stream()
+					.flatMap(key -> BuiltInRegistries.ITEM.getHolder(key).stream()))
+			.distinct()
+			.forEach(item -> {
+				ItemStack stack = new ItemStack(item);
+				stack.setCount(stack.getMaxStackSize());
+				int upgradedTime = getEffectiveCookingTime(cookingTime, getSpeedMultiplier(stack));
+				lines.add(Component.translatable(UPGRADED_COOKING_TIME, stack.getHoverName(), stack.getCount(), upgradedTime / 20F));
+			});
+		return lines;
+	}
+}
@@ -0,0 +1,51 @@
+package net.commoble.jumbofurnace.jumbo_furnace;
+
+import net.minecraft.world.item.ItemStack;
+import net.neoforged.neoforge.items.IItemHandler;
+import net.neoforged.neoforge.items.ItemStackHandler;
+import net.neoforged.neoforge.items.SlotItemHandler;
+
+public class SpeedUpgradeHandler extends ItemStackHandler implements CoreItemHandler
+{
+	private final JumboFurnaceCoreBlockEntity te;
+	
+	public SpeedUpgradeHandler(JumboFurnaceCoreBlockEntity te)
+	{
+		super(1);
+		this.te = te;
+	}
+
+	@Override
+	public JumboFurnaceCoreBlockEntity getCore()
+	{
+		return this.te;
+	}
+
+	@Override
+	public boolean isItemValid(int slot, ItemStack stack)
+	{
+		return SpeedUpgrade.isUpgrade(stack);
+	}
+
+	@Override
+	protected void onContentsChanged(int slot)
+	{
+		super.onContentsChanged(slot);
+		this.te.markUpgradeInventoryChanged();
+	}
+	
+	// clientside menus use a plain itemhandler, so the slot needs to check the item too
+	public static class SpeedUpgradeSlotHandler extends SlotItemHandler
+	{
+		public SpeedUpgradeSlotHandler(IItemHandler itemHandler, int index, int xPosition, int yPosition)
+		{
+			super(itemHandler, index, xPosition, yPosition);
+		}
+
+		@Override
+		public boolean mayPlace(ItemStack stack)
+		{
+			return SpeedUpgrade.isUpgrade(stack);
+		}
+	}
+}
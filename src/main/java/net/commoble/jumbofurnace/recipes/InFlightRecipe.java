@@ -1,10 +1,18 @@
 package net.commoble.jumbofurnace.recipes;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
 
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 
+import net.commoble.jumbofurnace.JumboFurnaceUtils;
+import net.commoble.jumbofurnace.jumbo_furnace.FurnaceJob;
+import net.commoble.jumbofurnace.jumbo_furnace.SpeedUpgrade;
+import net.minecraft.util.ExtraCodecs;
 import net.minecraft.world.item.ItemStack;
 
 public class InFlightRecipe
@@ -12,23 +20,79 @@ public class InFlightRecipe
 	public static final Codec<InFlightRecipe> CODEC = RecordCodecBuilder.create(builder -> builder.group(
 			JumboFurnaceRecipe.CODEC.fieldOf("recipe").forGetter(InFlightRecipe::recipe),
 			ItemStack.CODEC.listOf().fieldOf("inputs").forGetter(InFlightRecipe::inputs),
-			Codec.INT.fieldOf("progress").forGetter(InFlightRecipe::progress)
+			Codec.LONG.fieldOf("start_tick").forGetter(InFlightRecipe::startTick),
+			ExtraCodecs.POSITIVE_INT.optionalFieldOf("count", 1).forGetter(InFlightRecipe::count)
 		).apply(builder, InFlightRecipe::new));
 	
+	/**
+	 * Codec for inflight recipes saved before their progress was derived from game times,
+	 * which saved their progress instead of a start tick.
+	 * Decoded recipes start at minus their progress, i.e. relative to a load time of 0,
+	 * so whatever loads them must delay them by the actual load time.
+	 */
+	public static final Codec<InFlightRecipe> LEGACY_CODEC = RecordCodecBuilder.create(builder -> builder.group(
+			JumboFurnaceRecipe.CODEC.fieldOf("recipe").forGetter(InFlightRecipe::recipe),
+			ItemStack.CODEC.listOf().fieldOf("inputs").forGetter(InFlightRecipe::inputs),
+			Codec.INT.fieldOf("progress").forGetter(recipe -> 0)
+		).apply(builder, (recipe, inputs, progress) -> new InFlightRecipe(recipe, inputs, -(long)progress)));
+	
+	// ids for syncing recipe progress to clients, only needs to be unique among the existing inflight recipes
+	private static final AtomicInteger NEXT_ID = new AtomicInteger();
+	
+	private final int id = NEXT_ID.getAndIncrement();
 	private final JumboFurnaceRecipe recipe;
 	private final List<ItemStack> inputs;
-	private int progress = 0;
+	private final int count;
+	// ticks the recipe takes to cook in the furnace it was started in, and heat per tick consumed by each craft
+	private final int duration;
+	private final int heatPerCraft;
+	// game time the recipe would have started at if it had been heated every tick since then;
+	// progress is derived from this instead of being counted every tick
+	private long startTick;
+	// the submitted job this recipe is cooking, if any (not saved; jobs that were cooking when we unloaded finish as ordinary recipes)
+	private @Nullable FurnaceJob job = null;
 	
-	public InFlightRecipe(JumboFurnaceRecipe recipe, List<ItemStack> inputs)
+	/**
+	 * @param recipe The recipe being cooked
+	 * @param inputs The items consumed to begin cooking the recipe; these are merged into as few stacks as possible
+	 * @param startTick Game time the recipe started cooking at
+	 */
+	public InFlightRecipe(JumboFurnaceRecipe recipe, List<ItemStack> inputs, long startTick)
 	{
-		this(recipe, inputs, 0);
+		this(recipe, inputs, startTick, 1);
 	}
 	
-	public InFlightRecipe(JumboFurnaceRecipe recipe, List<ItemStack> inputs, int progress)
+	/**
+	 * @param recipe The recipe being cooked
+	 * @param inputs The items consumed to begin cooking every craft in the batch; these are merged into as few stacks as possible
+	 * @param startTick Game time the recipe started cooking at
+	 * @param count Number of crafts of the recipe cooking together as one batch
+	 */
+	public InFlightRecipe(JumboFurnaceRecipe recipe, List<ItemStack> inputs, long startTick, int count)
+	{
+		this(recipe, inputs, startTick, count, recipe.cookingTime());
+	}
+	
+	/**
+	 * @param recipe The recipe being cooked
+	 * @param inputs The items consumed to begin cooking every craft in the batch; these are merged into as few stacks as possible
+	 * @param startTick Game time the recipe started cooking at
+	 * @param count Number of crafts of the recipe cooking together as one batch
+	 * @param duration Ticks the recipe takes to cook, which may be less than its cooking time if the furnace is sped up
+	 */
+	public InFlightRecipe(JumboFurnaceRecipe recipe, List<ItemStack> inputs, long startTick, int count, int duration)
 	{
 		this.recipe = recipe;
-		this.inputs = inputs;
-		this.progress = progress;
+		this.inputs = JumboFurnaceUtils.compactStacks(inputs);
+		this.startTick = startTick;
+		this.count = Math.max(1, count);
+		this.duration = Math.min(duration, recipe.cookingTime());
+		this.heatPerCraft = SpeedUpgrade.getHeatPerCraft(recipe.cookingTime(), this.duration);
+	}
+	
+	public int id()
+	{
+		return this.id;
 	}
 	
 	public JumboFurnaceRecipe recipe()
@@ -36,19 +100,100 @@ public class InFlightRecipe
 		return this.recipe;
 	}
 	
+	/**
+	 * @return The submitted job this recipe is cooking, or null if the furnace started it by itself
+	 */
+	@Nullable
+	public FurnaceJob job()
+	{
+		return this.job;
+	}
+	
+	/**
+	 * @param job The submitted job this recipe is cooking
+	 * @return this
+	 */
+	public InFlightRecipe withJob(@Nullable FurnaceJob job)
+	{
+		this.job = job;
+		return this;
+	}
+	
 	public List<ItemStack> inputs()
 	{
 		return this.inputs;
 	}
 	
-	public int progress()
+	public long startTick()
+	{
+		return this.startTick;
+	}
+	
+	/**
+	 * @return Number of crafts of the recipe in this batch; each one takes up a recipe slot and consumes heat
+	 */
+	public int count()
+	{
+		return this.count;
+	}
+	
+	/**
+	 * @return Ticks the recipe takes to cook
+	 */
+	public int duration()
+	{
+		return this.duration;
+	}
+	
+	/**
+	 * @return Heat consumed per tick by the whole batch while it cooks; the batch only progresses in ticks where it gets all of it
+	 */
+	public int heatPerTick()
+	{
+		return (int)Math.min(Integer.MAX_VALUE, (long)this.heatPerCraft * this.count);
+	}
+	
+	/**
+	 * @return The results of every craft in the batch, as one stack per recipe result (counts may exceed max stack sizes)
+	 */
+	public List<ItemStack> results()
+	{
+		List<ItemStack> results = new ArrayList<>(this.recipe.results().size());
+		for (ItemStack result : this.recipe.results())
+		{
+			results.add(result.copyWithCount((int)Math.min(Integer.MAX_VALUE, (long)result.getCount() * this.count)));
+		}
+		return results;
+	}
+	
+	/**
+	 * @param gameTime Current game time
+	 * @return Cooking progress in ticks, assuming the recipe has been heated every tick up to the given time
+	 */
+	public int progress(long gameTime)
+	{
+		return (int)Math.max(0L, Math.min(gameTime - this.startTick, Integer.MAX_VALUE));
+	}
+	
+	/**
+	 * @return The game time at which the recipe completes, assuming it is heated every tick until then
+	 */
+	public long completionTick()
+	{
+		return this.startTick + this.duration;
+	}
+	
+	public boolean isComplete(long gameTime)
 	{
-		return this.progress;
+		return gameTime >= this.completionTick();
 	}
 	
-	public boolean incrementProgress()
+	/**
+	 * Delays the recipe by some number of ticks in which it was not heated
+	 * @param ticks Ticks to delay by
+	 */
+	public void delay(long ticks)
 	{
-		this.progress++;
-		return this.progress >= recipe.cookingTime();
+		this.startTick += ticks;
 	}
 }
@@ -11,7 +11,7 @@ import com.mojang.serialization.MapCodec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 
 import net.commoble.jumbofurnace.JumboFurnace;
-import net.commoble.jumbofurnace.jumbo_furnace.JumboFurnaceMenu;
+import net.commoble.jumbofurnace.jumbo_furnace.FurnaceTier;
 import net.minecraft.core.HolderLookup.Provider;
 import net.minecraft.core.NonNullList;
 import net.minecraft.core.registries.BuiltInRegistries;
@@ -62,9 +62,11 @@ public record JumboFurnaceRecipe(String group, List<SizedIngredient> ingredients
 		{
 			return DataResult.error(() -> "No ingredients for jumbo smelting recipe");
 		}
-		if (size > JumboFurnaceMenu.INPUT_SLOTS)
+		// recipes have to fit in the smallest furnace's input
+		int maxSize = FurnaceTier.JUMBO.slots();
+		if (size > maxSize)
 		{
-			return DataResult.error(() -> "Too many ingredients for jumbo smelting recipe! the max is " + (JumboFurnaceMenu.INPUT_SLOTS));
+			return DataResult.error(() -> "Too many ingredients for jumbo smelting recipe! the max is " + maxSize);
 		}
 		return DataResult.success(ingredients);
 	}
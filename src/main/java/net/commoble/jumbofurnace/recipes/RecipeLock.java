@@ -0,0 +1,59 @@
+package net.commoble.jumbofurnace.recipes;
+
+import java.util.List;
+import java.util.Set;
+
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.neoforged.neoforge.common.crafting.SizedIngredient;
+
+/**
+ * The one recipe a locked jumbo furnace is allowed to run, with the items its ingredients can use precomputed
+ * so that the furnace doesn't need the recipe sorter to plan or to filter its inputs
+ * @param recipe The recipe the furnace is locked to
+ * @param items Every item that any of the recipe's ingredients can match
+ */
+public record RecipeLock(JumboFurnaceRecipe recipe, Set<Item> items)
+{
+	public static RecipeLock of(JumboFurnaceRecipe recipe)
+	{
+		Set<Item> items = new ReferenceOpenHashSet<>();
+		for (SizedIngredient sizedIngredient : recipe.ingredients())
+		{
+			for (ItemStack stack : sizedIngredient.ingredient().getItems())
+			{
+				items.add(stack.getItem());
+			}
+		}
+		return new RecipeLock(recipe, items);
+	}
+	
+	/**
+	 * @return The locked recipe as the only candidate for the furnace to start
+	 */
+	public List<JumboFurnaceRecipe> candidates()
+	{
+		return List.of(this.recipe);
+	}
+	
+	/**
+	 * @param stack An itemstack
+	 * @return Whether the stack can be used as any of the recipe's ingredients
+	 */
+	public boolean accepts(ItemStack stack)
+	{
+		// check the item first, most stacks that don't belong can be rejected without testing the ingredients
+		if (!this.items.contains(stack.getItem()))
+			return false;
+		
+		for (SizedIngredient sizedIngredient : this.recipe.ingredients())
+		{
+			Ingredient ingredient = sizedIngredient.ingredient();
+			if (ingredient.test(stack))
+				return true;
+		}
+		return false;
+	}
+}
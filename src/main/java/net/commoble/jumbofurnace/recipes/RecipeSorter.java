@@ -2,6 +2,7 @@ package net.commoble.jumbofurnace.recipes;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,6 +32,17 @@ public class RecipeSorter extends SimplePreparableReloadListener<Void>
 	private List<JumboFurnaceRecipe> allRecipes = new ArrayList<>();
 	
 	public SortedSet<JumboFurnaceRecipe> getSortedFurnaceRecipesValidForInputs(Collection<Item> inputItems, RecipeManager manager)
+	{
+		return this.getSortedFurnaceRecipesValidForInputs(inputItems, manager, RecipeSorter::compareRecipes);
+	}
+	
+	/**
+	 * @param inputItems Items to find recipes for
+	 * @param manager The recipe manager
+	 * @param order Order to sort the recipes in
+	 * @return Every recipe that any of the items can be used in, sorted in the given order
+	 */
+	public SortedSet<JumboFurnaceRecipe> getSortedFurnaceRecipesValidForInputs(Collection<Item> inputItems, RecipeManager manager, Comparator<JumboFurnaceRecipe> order)
 	{
 		if (this.currentGeneration != this.lastKnownGeneration)
 		{
@@ -38,7 +50,7 @@ public class RecipeSorter extends SimplePreparableReloadListener<Void>
 			this.lastKnownGeneration = this.currentGeneration;
 		}
 		
-		SortedSet<JumboFurnaceRecipe> recipesForItems = new ObjectRBTreeSet<>(RecipeSorter::compareRecipes);
+		SortedSet<JumboFurnaceRecipe> recipesForItems = new ObjectRBTreeSet<>(order);
 		for (Item item : inputItems)
 		{
 			var recipesForItem = this.cachedSortedRecipes.get(item);
@@ -51,6 +63,21 @@ public class RecipeSorter extends SimplePreparableReloadListener<Void>
 		return recipesForItems;
 	}
 	
+	/**
+	 * @param item An item
+	 * @param manager The recipe manager
+	 * @return Whether the item is used in any jumbo smelting or smelting recipes
+	 */
+	public boolean hasRecipesFor(Item item, RecipeManager manager)
+	{
+		if (this.currentGeneration != this.lastKnownGeneration)
+		{
+			this.sortFurnaceRecipes(manager);
+			this.lastKnownGeneration = this.currentGeneration;
+		}
+		return this.cachedSortedRecipes.containsKey(item);
+	}
+	
 	public List<JumboFurnaceRecipe> getAllSortedFurnaceRecipes(RecipeManager manager)
 	{
 		if (this.currentGeneration != this.lastKnownGeneration)